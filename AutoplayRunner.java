@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ * AutoplayRunner has the Solver play a batch of headless games at each level on all available cores
+ * and reports wins, losses, guesses, games per second and the 99th percentile time of a single game.
+ * Game i of a level is always played on the grid generated from seed i, so two runs play exactly the
+ * same games and their numbers can be compared across releases.
+ *
+ * Usage: java AutoplayRunner [games per level] [threads]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class AutoplayRunner
+{
+    private static final int DEFAULT_GAMES = 200000;
+
+    private static final int[] LEVELS = { Grid.EASY_LEVEL, Grid.MEDIUM_LEVEL, Grid.HARD_LEVEL };
+    private static final String[] LEVEL_NAMES = { "Easy", "Medium", "Hard" };
+
+    public static void main(String[] args) throws Exception {
+
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        System.out.println(games + " games per level on " + threads + " thread(s)");
+
+        for (int l = 0; l < LEVELS.length; l++) {
+
+            //Untimed warm-up so the JIT has compiled the solver before the measured run
+            runLevel(pool, threads, LEVELS[l], Math.min(games, 20000));
+
+            long start = System.nanoTime();
+            long[] totals = runLevel(pool, threads, LEVELS[l], games);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-7s won %6.2f%%  lost %6.2f%%  guesses/game %.2f  %,10.0f games/s  p99 %.1f us%n",
+                LEVEL_NAMES[l],
+                100.0 * totals[Solver.WON] / games,
+                100.0 * totals[Solver.LOST] / games,
+                (double) totals[3] / games,
+                games / seconds,
+                totals[4] / 1e3);
+        }
+
+        pool.shutdown();
+    }
+
+    /* Plays games on the pool, each thread taking an equal slice of the seeds
+    Returns { won, lost, stuck, guesses, p99 game time in nanoseconds } */
+    private static long[] runLevel(ExecutorService pool, int threads, int level, int games) throws Exception {
+
+        long[] gameNanos = new long[games];
+        Future<?>[] slices = new Future<?>[threads];
+        long[][] sliceTotals = new long[threads][4];
+
+        for (int t = 0; t < threads; t++) {
+
+            int first = (int) ((long) games * t / threads);
+            int last = (int) ((long) games * (t + 1) / threads);
+            long[] totals = sliceTotals[t];
+
+            slices[t] = pool.submit(() -> playSlice(level, first, last, gameNanos, totals));
+        }
+
+        long[] totals = new long[5];
+
+        for (int t = 0; t < threads; t++) {
+
+            slices[t].get();
+
+            for (int k = 0; k < 4; k++)
+                totals[k] += sliceTotals[t][k];
+        }
+
+        Arrays.sort(gameNanos);
+        totals[4] = gameNanos[(int) Math.min(games - 1, (long) Math.ceil(games * 0.99) - 1)];
+
+        return totals;
+    }
+
+    /* Plays the games with seeds [first, last) on the calling thread, with one Solver and one Grid
+    (reset in place for every game) for all of them */
+    private static void playSlice(int level, int first, int last, long[] gameNanos, long[] totals) {
+
+        Solver solver = new Solver();
+        Grid grid = null;
+
+        for (int seed = first; seed < last; seed++) {
+
+            long start = System.nanoTime();
+
+            if (grid == null)
+                grid = new Grid(level, seed);
+            else
+                grid.reset(seed);
+
+            int result = solver.play(grid);
+
+            gameNanos[seed] = System.nanoTime() - start;
+            totals[result]++;
+            totals[3] += solver.getGuesses();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.SplittableRandom;
+/**
+ * BasicStrategy opens the center cell, then plays the two single-cell rules every player learns
+ * first: a count whose mines are all flagged makes its other hidden neighbors safe, and a count equal
+ * to its flags plus hidden neighbors makes them all mines. When neither rule applies anywhere it
+ * reveals a random hidden cell. (Solver adds subset and mine-count rules on top of these.)
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class BasicStrategy implements Strategy
+{
+    private SplittableRandom random;
+
+    public String getName() {
+
+        return "basic";
+    }
+
+    public void newGame(PlayerView view, long seed) {
+
+        random = new SplittableRandom(seed);
+    }
+
+    public int nextMove(PlayerView view) {
+
+        int n = view.getSize();
+
+        //First move: the center cell
+        if (view.getRevealedCount() == 0)
+            return Strategy.reveal(view.indexOf(n / 2, n / 2));
+
+        for (int index = 0; index < view.getCellTotal(); index++) {
+
+            int count = view.getCount(index);
+
+            //Only revealed counts with at least one mine around them tell anything
+            if (count <= 0) continue;
+
+            int move = applyRules(view, index, count);
+
+            if (move != NO_MOVE)
+                return move;
+        }
+
+        return guess(view);
+    }
+
+    /* Returns a move the single-cell rules find around the count at index, or NO_MOVE */
+    private int applyRules(PlayerView view, int index, int count) {
+
+        int n = view.getSize();
+        int row = view.rowOf(index);
+        int col = view.colOf(index);
+
+        int flags = 0;
+        int hidden = 0;
+        int anyHidden = NO_MOVE;
+
+        for (int r = Math.max(0, row - 1); r <= Math.min(n - 1, row + 1); r++) {
+
+            for (int c = Math.max(0, col - 1); c <= Math.min(n - 1, col + 1); c++) {
+
+                int neighbor = view.indexOf(r, c);
+
+                if (view.isFlagged(neighbor)) {
+                    flags++;
+                }
+                else if (!view.isRevealed(neighbor)) {
+                    hidden++;
+                    anyHidden = neighbor;
+                }
+            }
+        }
+
+        if (hidden == 0) return NO_MOVE;
+
+        //Every mine around this count is flagged, so the other hidden neighbors are safe
+        if (flags == count)
+            return Strategy.reveal(anyHidden);
+
+        //Every hidden neighbor has to be a mine
+        if (flags + hidden == count)
+            return Strategy.flag(anyHidden);
+
+        return NO_MOVE;
+    }
+
+    /* Reveals a random hidden, unflagged cell */
+    private int guess(PlayerView view) {
+
+        int cellTotal = view.getCellTotal();
+        int start = random.nextInt(cellTotal);
+
+        for (int k = 0; k < cellTotal; k++) {
+
+            int index = (start + k) % cellTotal;
+
+            if (!view.isRevealed(index) && !view.isFlagged(index))
+                return Strategy.reveal(index);
+        }
+        return NO_MOVE;
+    }
+}
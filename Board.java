@@ -0,0 +1,428 @@
+import java.util.Arrays;
+/**
+ * The Board class is the headless model of a minesweeper grid. It stores the game state of every
+ * cell (mine, flag, revealed) as packed bitsets, one bit per cell, and keeps the neighbor mine
+ * counts in a nibble array (two cells per byte). Board has no knowledge of graphics or of a canvas,
+ * so game logic can run without AWT and boards with millions of cells fit in a few megabytes.
+ * Cells are addressed either by (row, col) or by a single index (row * size + col).
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class Board
+{
+    //Number of cells packed into one long of a bitset
+    private static final int BITS_PER_WORD = 64;
+
+    //Width of a neighbor count in bits (counts range from 0 to 8)
+    private static final int NIBBLE_BITS = 4;
+    private static final int NIBBLE_MASK = 0xF;
+
+    //Index value used when no mine has been exploded
+    public static final int NO_CELL = -1;
+
+    //Most cells a board can hold: a cascade keeps every cell in one int array, and
+        //JVMs can't allocate an array quite as long as Integer.MAX_VALUE
+    public static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private final int size;
+    private final int mineTotal;
+    private final int cellTotal;
+
+    //One bit per cell for each part of the cell state
+    private final long[] mines;
+    private final long[] flags;
+    private final long[] revealed;
+
+    //Neighbor mine counts, two cells packed into each byte
+    private final byte[] counts;
+
+    private int explodedIndex = NO_CELL;
+
+    //Running totals, kept up to date as cells change so they never need a scan of the board
+    private int flagCount = 0;
+    private int flaggedMineCount = 0;
+    private int revealedCount = 0;
+
+    //Queue of cells for a cascade reveal, allocated once and reused by every cascade
+        //After a cascade, it also holds the batch of cells that were revealed
+    private int[] revealQueue;
+
+    /* Board constructor takes the number of rows (and columns) of the square board
+    and the total number of mines the board will hold */
+    public Board(int size, int mineTotal) {
+
+        //Work out the cell total in a long, so a huge size can't overflow it
+        long cells = (long) size * size;
+
+        if (size <= 0 || cells > MAX_CELLS || mineTotal < 0 || mineTotal > cells)
+            throw new IllegalArgumentException("Invalid board: " + size + "x" + size + ", " + mineTotal + " mines");
+
+        this.size = size;
+        this.mineTotal = mineTotal;
+        this.cellTotal = (int) cells;
+
+        //Round up so that a partially filled last word still has room for its cells
+        int words = (int) ((cells + BITS_PER_WORD - 1) / BITS_PER_WORD);
+
+        mines = new long[words];
+        flags = new long[words];
+        revealed = new long[words];
+        counts = new byte[(int) ((cells + 1) / 2)];
+    }
+
+    /* Returns the number of rows (and columns) of the board */
+    public int getSize() {
+
+        return size;
+    }
+
+    /* Returns the number of mines the board holds once all mines are placed */
+    public int getMineTotal() {
+
+        return mineTotal;
+    }
+
+    /* Returns the total number of cells on the board */
+    public int getCellTotal() {
+
+        return cellTotal;
+    }
+
+    /* Converts a 2D (row, col) position into a single cell index */
+    public int indexOf(int row, int col) {
+
+        return row * size + col;
+    }
+
+    /* Returns the row of the cell at the index passed in */
+    public int rowOf(int index) {
+
+        return index / size;
+    }
+
+    /* Returns the column of the cell at the index passed in */
+    public int colOf(int index) {
+
+        return index % size;
+    }
+
+    /* Determines if cell contains a mine */
+    public boolean containsMine(int index) {
+
+        return getBit(mines, index);
+    }
+
+    /* Determines if a flag has been placed on cell */
+    public boolean containsFlag(int index) {
+
+        return getBit(flags, index);
+    }
+
+    /* Determines if the contents of cell have been revealed to the player */
+    public boolean isRevealed(int index) {
+
+        return getBit(revealed, index);
+    }
+
+    /* Determines if a mine has been flagged */
+    public boolean flaggedMine(int index) {
+
+        return containsMine(index) && containsFlag(index);
+    }
+
+    /* Returns the index of the exploded mine, or NO_CELL if no mine has been exploded */
+    public int getExplodedIndex() {
+
+        return explodedIndex;
+    }
+
+    /* Returns the total number of flags present */
+    public int getFlagCount() {
+
+        return flagCount;
+    }
+
+    /* Returns the number of mines that have been flagged */
+    public int getFlaggedMineCount() {
+
+        return flaggedMineCount;
+    }
+
+    /* Returns the number of cells whose contents have been revealed */
+    public int getRevealedCount() {
+
+        return revealedCount;
+    }
+
+    /* Returns the number of mines surrounding cell */
+    public int getNeighborMineCount(int index) {
+
+        int shift = (index & 1) * NIBBLE_BITS;
+        return (counts[index >> 1] >> shift) & NIBBLE_MASK;
+    }
+
+    /* Places a mine in cell */
+    public void placeMine(int index) {
+
+        if (containsMine(index)) return;
+
+        setBit(mines, index);
+
+        //A flag already sitting on this cell now marks a mine
+        if (containsFlag(index))
+            flaggedMineCount++;
+    }
+
+    /* Removes the mine from cell (neighbor counts are left for the caller to fix) */
+    public void removeMine(int index) {
+
+        if (!containsMine(index)) return;
+
+        mines[index / BITS_PER_WORD] &= ~(1L << index);
+
+        if (containsFlag(index))
+            flaggedMineCount--;
+    }
+
+    /* Stores the number of mines surrounding cell */
+    public void setNeighborMineCount(int index, int count) {
+
+        int shift = (index & 1) * NIBBLE_BITS;
+        int packed = counts[index >> 1] & ~(NIBBLE_MASK << shift);
+        counts[index >> 1] = (byte) (packed | ((count & NIBBLE_MASK) << shift));
+    }
+
+    /* Places a flag on cell if there is none, otherwise removes the flag */
+    public void toggleFlag(int index) {
+
+        flags[index / BITS_PER_WORD] ^= (1L << index);
+
+        //+1 if a flag was just placed, -1 if it was just removed
+        int change = containsFlag(index) ? 1 : -1;
+
+        flagCount += change;
+
+        if (containsMine(index))
+            flaggedMineCount += change;
+    }
+
+    /* Marks the contents of cell as revealed */
+    public void reveal(int index) {
+
+        //Only count a cell the first time it is revealed
+        if (isRevealed(index)) return;
+
+        setBit(revealed, index);
+        revealedCount++;
+    }
+
+    /* Hides a revealed cell again (to undo a reveal) */
+    public void hide(int index) {
+
+        if (!isRevealed(index)) return;
+
+        revealed[index / BITS_PER_WORD] &= ~(1L << index);
+        revealedCount--;
+    }
+
+    /* Reveals cell and, if it has no neighboring mines, keeps revealing outwards until the opened
+    region is bordered by numbered cells. Returns the number of cells revealed; the cells themselves
+    are the first entries of getRevealBatch(). Iterative (no recursion) and allocation-free after the
+    first call, since the revealed bitset doubles as the visited set and the queue is reused */
+    public int revealCascade(int index) {
+
+        //Mines, flagged cells and cells that are already open are never revealed by a cascade
+        if (containsMine(index) || containsFlag(index) || isRevealed(index)) return 0;
+
+        //Every cell is queued at most once, so a queue as long as the board can never overflow
+        if (revealQueue == null)
+            revealQueue = new int[cellTotal];
+
+        int head = 0;
+        int tail = 0;
+
+        reveal(index);
+        revealQueue[tail++] = index;
+
+        while (head < tail) {
+
+            int cell = revealQueue[head++];
+
+            //Only cells with no neighboring mines open up their neighbors
+            if (getNeighborMineCount(cell) != 0) continue;
+
+            int row = rowOf(cell);
+            int col = colOf(cell);
+
+            for (int i = Math.max(row-1, 0); i <= Math.min(row+1, size-1); i++) {
+
+                for (int j = Math.max(col-1, 0); j <= Math.min(col+1, size-1); j++) {
+
+                    int neighbor = indexOf(i, j);
+
+                    //Neighbors of a zero cell hold no mines, but flags are left in place
+                    if (!isRevealed(neighbor) && !containsFlag(neighbor)) {
+                        reveal(neighbor);
+                        revealQueue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /* Returns the cells revealed by the last cascade (only the first revealCascade() entries are valid) */
+    public int[] getRevealBatch() {
+
+        return revealQueue;
+    }
+
+    /* Marks cell as the exploded mine (NO_CELL to undo an explosion) */
+    public void explode(int index) {
+
+        explodedIndex = index;
+    }
+
+    /* Copies the mine bits of one row into dst, aligned so that bit j of dst[k] is column k*64 + j
+    (columns past the edge of the board are left as 0). dst needs room for getRowWords() longs */
+    public void copyMineRow(int row, long[] dst) {
+
+        int start = row * size;
+        int rowWords = getRowWords();
+
+        for (int k = 0; k < rowWords; k++) {
+
+            int bitPos = start + k * BITS_PER_WORD;
+            int word = bitPos / BITS_PER_WORD;
+            int shift = bitPos % BITS_PER_WORD;
+
+            long value = mines[word] >>> shift;
+
+            //A row rarely starts on a word boundary, so the upper bits come from the next word
+            if (shift != 0 && word + 1 < mines.length)
+                value |= mines[word + 1] << (BITS_PER_WORD - shift);
+
+            dst[k] = value;
+        }
+
+        //Clear the bits that belong to the next row
+        int tailBits = size % BITS_PER_WORD;
+
+        if (tailBits != 0)
+            dst[rowWords - 1] &= (1L << tailBits) - 1;
+    }
+
+    /* Returns the number of longs in each of the board's bitsets (bit j of word k is cell k*64 + j) */
+    public int getWords() {
+
+        return flags.length;
+    }
+
+    /* Copies the mine bitset into dst (which needs room for getWords() longs) */
+    public void copyMines(long[] dst) {
+
+        System.arraycopy(mines, 0, dst, 0, mines.length);
+    }
+
+    /* Places the mines of a bitset copied from a board of the same size (see copyMines) on this
+    board, which must not hold any mines yet. The neighbor counts still have to be computed */
+    public void restoreMines(long[] mineWords) {
+
+        int placed = 0;
+
+        for (int k = 0; k < mines.length; k++) {
+            mines[k] = mineWords[k];
+            placed += Long.bitCount(mineWords[k]);
+        }
+
+        //Bits past the last cell must be clear as well
+        int tailBits = cellTotal % BITS_PER_WORD;
+        boolean tailClear = tailBits == 0 || (mines[mines.length - 1] >>> tailBits) == 0;
+
+        if (placed != mineTotal || !tailClear)
+            throw new IllegalArgumentException("Mine bitset does not hold " + mineTotal + " mines on " + cellTotal + " cells");
+    }
+
+    /* Copies the flag bitset into dst (which needs room for getWords() longs) */
+    public void copyFlags(long[] dst) {
+
+        System.arraycopy(flags, 0, dst, 0, flags.length);
+    }
+
+    /* Copies the revealed bitset into dst (which needs room for getWords() longs) */
+    public void copyRevealed(long[] dst) {
+
+        System.arraycopy(revealed, 0, dst, 0, revealed.length);
+    }
+
+    /* Replaces the flags, revealed cells and exploded mine with a snapshot taken from a board with
+    the same mines (see copyFlags and copyRevealed), and recounts the running totals from it */
+    public void restoreState(long[] flagWords, long[] revealedWords, int explodedIndex) {
+
+        System.arraycopy(flagWords, 0, flags, 0, flags.length);
+        System.arraycopy(revealedWords, 0, revealed, 0, revealed.length);
+        this.explodedIndex = explodedIndex;
+
+        flagCount = 0;
+        flaggedMineCount = 0;
+        revealedCount = 0;
+
+        //One popcount per word instead of a look at every cell
+        for (int k = 0; k < flags.length; k++) {
+            flagCount += Long.bitCount(flags[k]);
+            flaggedMineCount += Long.bitCount(flags[k] & mines[k]);
+            revealedCount += Long.bitCount(revealed[k]);
+        }
+    }
+
+    /* Returns the index of the first mine at or after cell from, or NO_CELL if there is none
+    (whole words without mines are skipped at once) */
+    public int nextMine(int from) {
+
+        if (from >= cellTotal) return NO_CELL;
+
+        int k = from / BITS_PER_WORD;
+        long word = mines[k] & (-1L << from);
+
+        while (word == 0) {
+            if (++k == mines.length) return NO_CELL;
+            word = mines[k];
+        }
+        return k * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+    }
+
+    /* Empties the board for a new game on the same arrays: no mines, flags, revealed cells or
+    counts, and no exploded mine */
+    public void clear() {
+
+        Arrays.fill(mines, 0);
+        Arrays.fill(flags, 0);
+        Arrays.fill(revealed, 0);
+        Arrays.fill(counts, (byte) 0);
+
+        explodedIndex = NO_CELL;
+        flagCount = 0;
+        flaggedMineCount = 0;
+        revealedCount = 0;
+    }
+
+    /* Returns the number of longs needed to hold one row of cells */
+    public int getRowWords() {
+
+        return (size + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    }
+
+    /* Reads the bit of a cell from one of the packed bitsets
+    (Java shifts only use the low 6 bits of the index, so 1L << index selects the bit within its word) */
+    private static boolean getBit(long[] bits, int index) {
+
+        return (bits[index / BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+    /* Sets the bit of a cell in one of the packed bitsets */
+    private static void setBit(long[] bits, int index) {
+
+        bits[index / BITS_PER_WORD] |= (1L << index);
+    }
+}
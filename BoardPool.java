@@ -0,0 +1,175 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * BoardPool keeps a few ready-to-play headless grids for every level (and for no-guess mode) so a new
+ * game never has to wait for mines to be placed, counts to be computed or a no-guess grid to be found.
+ * A single low-priority background thread keeps each pool topped up to its capacity; a level starts
+ * being pooled the first time a grid of that level is asked for. The pool counts hits (a grid was
+ * ready), misses (the grid had to be generated on the spot) and the time taken by each refill.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class BoardPool
+{
+    private final int capacity;
+
+    //Ready grids, keyed by level and mode (see poolKey)
+    private final Map<Integer, ArrayBlockingQueue<Grid>> pools = new HashMap<Integer, ArrayBlockingQueue<Grid>>();
+
+    //Keys in the order they were first asked for (the order in which pools are refilled)
+    private final List<Integer> keys = new ArrayList<Integer>();
+
+    //The producer searches for no-guess grids on one low-priority thread; a miss, which the
+        //player is waiting on, searches on every core
+    private final NoGuessGenerator backgroundGenerator = new NoGuessGenerator(1, Thread.MIN_PRIORITY);
+    private NoGuessGenerator missGenerator;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong refillNanos = new AtomicLong();
+
+    /* Constructs a pool holding up to capacity grids per level and mode, and starts its producer */
+    public BoardPool(int capacity) {
+
+        this.capacity = capacity;
+
+        Thread producer = new Thread(this::produce, "board-pool");
+        producer.setDaemon(true);
+        producer.setPriority(Thread.MIN_PRIORITY);
+        producer.start();
+    }
+
+    /* Starts keeping grids of level and mode ready before the first one is asked for */
+    public void prepare(int level, boolean noGuess) {
+
+        getPool(level, noGuess);
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /* Returns a new headless grid at level, taken from the pool when one is ready
+    (no-guess grids come with their start cell already opened) */
+    public Grid take(int level, boolean noGuess) {
+
+        ArrayBlockingQueue<Grid> pool = getPool(level, noGuess);
+        Grid grid = pool.poll();
+
+        if (grid != null) {
+            hits.incrementAndGet();
+        }
+        else {
+            misses.incrementAndGet();
+
+            //Without no-guess, a fresh grid is just an empty board until its first click
+            if (noGuess)
+                grid = getMissGenerator().generateGrid(level);
+            else
+                grid = Grid.withSafeFirstClick(level);
+        }
+
+        //Wake the producer up to replace the grid that was just taken
+        synchronized (this) {
+            notifyAll();
+        }
+        return grid;
+    }
+
+    /* Returns the fraction of grids that were ready when asked for (0 to 1) */
+    public double getHitRate() {
+
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /* Returns the average time in milliseconds the producer took to generate one grid */
+    public double getAverageRefillMillis() {
+
+        long count = refills.get();
+        return count == 0 ? 0 : refillNanos.get() / 1e6 / count;
+    }
+
+    /* Returns the pool of level and mode, creating it (which gets it filled) the first time */
+    private synchronized ArrayBlockingQueue<Grid> getPool(int level, boolean noGuess) {
+
+        int key = poolKey(level, noGuess);
+        ArrayBlockingQueue<Grid> pool = pools.get(key);
+
+        if (pool == null) {
+            pool = new ArrayBlockingQueue<Grid>(capacity);
+            pools.put(key, pool);
+            keys.add(key);
+        }
+        return pool;
+    }
+
+    /* Combines level and mode into a single map key */
+    private static int poolKey(int level, boolean noGuess) {
+
+        return level * 2 + (noGuess ? 1 : 0);
+    }
+
+    /* Returns the generator used on a miss, creating it the first time */
+    private synchronized NoGuessGenerator getMissGenerator() {
+
+        if (missGenerator == null)
+            missGenerator = new NoGuessGenerator();
+
+        return missGenerator;
+    }
+
+    /* Producer loop: refills the first pool that is below capacity, or waits until a grid is taken */
+    private void produce() {
+
+        while (true) {
+
+            int key = nextKeyToRefill();
+
+            long start = System.nanoTime();
+            Grid grid;
+
+            //Placing the mines ahead of time leaves the first click only the mines next to it to move
+            if (key % 2 == 1) {
+                grid = backgroundGenerator.generateGrid(key / 2);
+            }
+            else {
+                grid = Grid.withSafeFirstClick(key / 2);
+                grid.prepareMines();
+            }
+
+            refillNanos.addAndGet(System.nanoTime() - start);
+            refills.incrementAndGet();
+
+            //Only the producer adds grids, so there is always room for this one
+            getPool(key / 2, key % 2 == 1).offer(grid);
+        }
+    }
+
+    /* Returns the key of a pool that needs another grid, waiting until there is one */
+    private synchronized int nextKeyToRefill() {
+
+        while (true) {
+
+            for (int key : keys) {
+
+                if (pools.get(key).size() < capacity)
+                    return key;
+            }
+
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Board pool producer interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,784 @@
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import javax.swing.JComponent;
+/**
+ * BoardView is the single Swing component the board is drawn on. It keeps no shapes: the board is
+ * cut into square tiles of cells, and each tile is painted once, straight from the state of the Grid's
+ * Board (see GridCell.paint), into an image that is kept until a move changes one of its cells. A
+ * paint then only copies the tiles under the repainted area, along with the hint shading and the
+ * win/loss message. After a move, Grid marks the cells that changed as dirty, so the cost of a move
+ * depends on the tiles it touched, not on the size of the board or how long the session has been
+ * going. Dirty cells can be marked from any thread; they are collected and repainted together by
+ * flushRepaint(), which the event thread calls once per frame. The view also keeps the number of
+ * paints, the time spent painting and the time from an input to the paint that shows it.
+ *
+ * The view can be zoomed (mouse wheel) and scrolled (drag with the middle button), so boards far
+ * bigger than the window can be played. Zoom goes in steps of whole pixels per cell; below
+ * DETAIL_CELL_SIZE pixels a cell is painted as a flat block of its color instead of its full
+ * picture. Tile images of every zoom step share one cache, which drops the least recently used
+ * tiles once it holds more than -Dminesweeper.tileCacheMB megabytes (64 by default).
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class BoardView extends JComponent
+{
+    private static final long serialVersionUID = 1L;
+
+    //Vertical position of the top of the game status message
+    private static final int MESSAGE_Y = 630;
+    private static final Font MESSAGE_FONT = new Font(Font.DIALOG, Font.BOLD, 25);
+    private static final Color MESSAGE_BACKDROP = new Color(255, 255, 255, 200);
+
+    //Size of a cell in pixels at each zoom step, and the step the view starts at (full size cells)
+    private static final int[] ZOOM_CELL_SIZES = { 1, 2, 3, 4, 6, 8, 10, 15, 20, 30, 45, 60 };
+    private static final int DEFAULT_ZOOM = 9;
+
+    //Cells smaller than this are painted as flat blocks of color
+    private static final int DETAIL_CELL_SIZE = 8;
+
+    //Tiles are as many whole cells as fit in this many pixels across; every tile image has the same
+    //size (one pixel more, for the right and bottom grid lines) so any image can be reused for any tile
+    private static final int TILE_PIXELS = 256;
+    private static final int TILE_IMAGE_SIZE = TILE_PIXELS + 1;
+
+    //Most tile images the cache may hold (4 bytes a pixel)
+    private static final int MAX_TILES = (int) Math.max(16,
+        Long.getLong("minesweeper.tileCacheMB", 64) * 1024 * 1024 / (4L * TILE_IMAGE_SIZE * TILE_IMAGE_SIZE));
+
+    //Flat colors of the zoomed out cells: hidden, flagged, exploded, shown mine,
+    //and revealed by neighbor count (0 to 8)
+    private static final int HIDDEN_RGB = 0x808080;
+    private static final int FLAG_RGB = 0x00FF00;
+    private static final int EXPLODED_RGB = 0xFF0000;
+    private static final int MINE_RGB = 0x000000;
+    private static final int[] REVEALED_RGB = {
+        0xFFFFFF, 0xD8DEFF, 0xD0F0D0, 0xFFD6D6, 0xDCCCF0, 0xF0D8C0, 0xC8ECEC, 0xD0D0D0, 0xB8B8B8
+    };
+
+    //Dirty cell areas kept apart before they are merged into one
+    private static final int MAX_DIRTY_AREAS = 32;
+
+    private Grid grid;
+
+    //Mine probabilities shaded over the hidden cells (null when hints are off)
+    private ProbabilityEngine hints;
+
+    //Game status message (null if there is none) and its color
+    private String message;
+    private Color messageColor;
+
+    //Cell areas (first row, first col, last row, last col) changed since the last flush, and whether
+    //the whole board or the message changed
+    private final ArrayList<int[]> dirtyCells = new ArrayList<int[]>();
+    private boolean allDirty = false;
+    private boolean messageDirty = false;
+
+    //Zoom step and scroll position in view pixels (only used on the event thread)
+    private int zoom = DEFAULT_ZOOM;
+    private int scrollX = 0;
+    private int scrollY = 0;
+
+    //Last point of a middle button drag
+    private int dragX;
+    private int dragY;
+
+    //Tile images by zoom step and position (see tileKey), least recently used first, the grid they
+    //show and the size of its board (only used on the event thread)
+    private final LinkedHashMap<Long, Tile> tiles = new LinkedHashMap<Long, Tile>(256, 0.75f, true);
+    private Grid tileGrid;
+    private int tileBoardSize = -1;
+
+    //Pixels of a zoomed out tile, filled before they are copied into its image
+    private final int[] tilePixels = new int[TILE_IMAGE_SIZE * TILE_IMAGE_SIZE];
+
+    //Paint statistics
+    private long paintCount = 0;
+    private long paintNanos = 0;
+    private long lastPaintNanos = 0;
+    private long tilesRendered = 0;
+
+    //Input latency statistics: time of the input waiting to be painted (0 if none), and the
+    //number, total and maximum of the input-to-paint times measured so far
+    private long pendingInputNanos = 0;
+    private long latencyCount = 0;
+    private long latencyNanos = 0;
+    private long maxLatencyNanos = 0;
+
+    public BoardView() {
+
+        setOpaque(true);
+        setBackground(Color.WHITE);
+
+        MouseAdapter navigation = new MouseAdapter() {
+
+            public void mousePressed(MouseEvent event) {
+
+                dragX = event.getX();
+                dragY = event.getY();
+            }
+
+            public void mouseDragged(MouseEvent event) {
+
+                //Only the middle button pans; the others play cells
+                if ((event.getModifiersEx() & MouseEvent.BUTTON2_DOWN_MASK) == 0) return;
+
+                scrollBy(dragX - event.getX(), dragY - event.getY());
+                dragX = event.getX();
+                dragY = event.getY();
+            }
+
+            public void mouseWheelMoved(MouseWheelEvent event) {
+
+                zoomAt(zoom - event.getWheelRotation(), event.getX(), event.getY());
+            }
+        };
+
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
+    }
+
+    /* Shows grid (replacing any grid shown before) and clears the message */
+    public synchronized void setGrid(Grid grid) {
+
+        this.grid = grid;
+        this.message = null;
+
+        repaintAll();
+    }
+
+    /* Shades every hidden cell by its mine probability from hints (or stops if hints is null) */
+    public synchronized void setHints(ProbabilityEngine hints) {
+
+        this.hints = hints;
+
+        repaintHints();
+    }
+
+    /* Returns the grid shown by the view */
+    public synchronized Grid getGrid() {
+
+        return grid;
+    }
+
+    /* Repaints the single cell at index */
+    public void repaintCell(int index) {
+
+        Board board = getGrid().getBoard();
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
+
+        markDirty(row, col, row, col);
+    }
+
+    /* Repaints the first count cells of cells with one repaint of the area around all of them */
+    public void repaintCells(int[] cells, int count) {
+
+        repaintCells(cells, 0, count);
+    }
+
+    /* Repaints cells[from] to cells[to - 1] with one repaint of the area around all of them */
+    public void repaintCells(int[] cells, int from, int to) {
+
+        if (to <= from) return;
+
+        Board board = getGrid().getBoard();
+        int minRow = Integer.MAX_VALUE, maxRow = -1;
+        int minCol = Integer.MAX_VALUE, maxCol = -1;
+
+        for (int k = from; k < to; k++) {
+
+            int row = board.rowOf(cells[k]);
+            int col = board.colOf(cells[k]);
+
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        markDirty(minRow, minCol, maxRow, maxCol);
+    }
+
+    /* Repaints the whole board (for example to show every mine once the game is over) */
+    public synchronized void repaintAll() {
+
+        allDirty = true;
+    }
+
+    /* Repaints the hint shading, which a move may change over the whole board, without painting
+    any cell again */
+    public synchronized void repaintHints() {
+
+        messageDirty = true;
+        dirtyCells.add(null);
+    }
+
+    /* Shows a game status message below the board (or removes it if message is null) */
+    public synchronized void setMessage(String message, Color color) {
+
+        //Nothing to repaint if the message is already showing
+        if (message != null && message.equals(this.message)) return;
+
+        this.message = message;
+        this.messageColor = color;
+
+        messageDirty = true;
+    }
+
+    /* Repaints everything marked dirty since the last flush (called on the event thread once
+    per frame); inputNanos is the time of the oldest input being shown, or 0 if there is none */
+    public void flushRepaint(long inputNanos) {
+
+        int[][] areas;
+        boolean all;
+        boolean messageChanged;
+
+        synchronized (this) {
+            if (!allDirty && !messageDirty && dirtyCells.isEmpty()) return;
+
+            areas = dirtyCells.toArray(new int[dirtyCells.size()][]);
+            all = allDirty;
+            messageChanged = messageDirty;
+
+            dirtyCells.clear();
+            allDirty = false;
+            messageDirty = false;
+
+            if (inputNanos != 0 && pendingInputNanos == 0)
+                pendingInputNanos = inputNanos;
+        }
+
+        if (all) {
+            for (Tile tile : tiles.values())
+                tile.stale = true;
+
+            repaint();
+            return;
+        }
+
+        Rectangle area = null;
+        boolean hintsChanged = false;
+
+        for (int[] cells : areas) {
+
+            //Hints are shaded over the tiles, so they only need the view painted again
+            if (cells == null) {
+                hintsChanged = true;
+                continue;
+            }
+
+            for (Tile tile : tiles.values()) {
+                if (tile.overlaps(cells))
+                    tile.stale = true;
+            }
+
+            area = union(area, cellArea(cells[0], cells[1], cells[2], cells[3]));
+        }
+
+        if (messageChanged)
+            area = union(area, new Rectangle(0, MESSAGE_Y, getWidth(), getHeight() - MESSAGE_Y));
+
+        if (hintsChanged)
+            repaint();
+        else if (area != null)
+            repaint(area);
+    }
+
+    /* Adds the cells from [minRow][minCol] to [maxRow][maxCol] to the area that needs repainting
+    at the next flush */
+    private synchronized void markDirty(int minRow, int minCol, int maxRow, int maxCol) {
+
+        if (allDirty) return;
+
+        //Far too many separate moves for one frame: keep a single area around all of them
+        if (dirtyCells.size() == MAX_DIRTY_AREAS) {
+            int[] merged = { minRow, minCol, maxRow, maxCol };
+
+            for (int[] cells : dirtyCells) {
+
+                //The hint shading has to be repainted in any case
+                if (cells == null) continue;
+
+                merged[0] = Math.min(merged[0], cells[0]);
+                merged[1] = Math.min(merged[1], cells[1]);
+                merged[2] = Math.max(merged[2], cells[2]);
+                merged[3] = Math.max(merged[3], cells[3]);
+            }
+
+            boolean withHints = dirtyCells.contains(null);
+
+            dirtyCells.clear();
+            if (withHints) dirtyCells.add(null);
+            dirtyCells.add(merged);
+            return;
+        }
+
+        dirtyCells.add(new int[] { minRow, minCol, maxRow, maxCol });
+    }
+
+    /* Zooms to step (kept within the zoom steps there are), keeping the board point under (x, y)
+    where it is (event thread only) */
+    public void zoomAt(int step, int x, int y) {
+
+        step = Math.max(0, Math.min(ZOOM_CELL_SIZES.length - 1, step));
+        if (step == zoom) return;
+
+        //Board position under (x, y) in unzoomed pixels
+        double boardX = (x + scrollX) / getScale();
+        double boardY = (y + scrollY) / getScale();
+
+        zoom = step;
+        scrollTo((int) Math.round(boardX * getScale() - x), (int) Math.round(boardY * getScale() - y));
+        repaint();
+    }
+
+    /* Scrolls the view by (dx, dy) pixels (event thread only) */
+    public void scrollBy(int dx, int dy) {
+
+        int oldX = scrollX;
+        int oldY = scrollY;
+
+        scrollTo(scrollX + dx, scrollY + dy);
+
+        if (scrollX != oldX || scrollY != oldY)
+            repaint();
+    }
+
+    /* Returns the zoom factor of the view (1 = unzoomed, full size cells) */
+    public double getScale() {
+
+        return (double) ZOOM_CELL_SIZES[zoom] / GridCell.CELL_SIZE;
+    }
+
+    /* Returns how far the view is scrolled to the right, in view pixels, as Grid.getCellIndexAt
+    takes it (the board's margin is drawn rounded to whole pixels, so this may not be whole) */
+    public double getScrollX() {
+
+        return Grid.START_LOC * getScale() - boardX();
+    }
+
+    /* Returns how far the view is scrolled down, in view pixels, as Grid.getCellIndexAt takes it */
+    public double getScrollY() {
+
+        return Grid.START_LOC * getScale() - boardY();
+    }
+
+    /* Returns the average time in microseconds from an input to the paint that shows it */
+    public synchronized double getAverageInputLatencyMicros() {
+
+        return latencyCount == 0 ? 0 : latencyNanos / 1e3 / latencyCount;
+    }
+
+    /* Returns the longest time in microseconds from an input to the paint that showed it */
+    public synchronized double getMaxInputLatencyMicros() {
+
+        return maxLatencyNanos / 1e3;
+    }
+
+    /* Returns the number of times the view has been painted */
+    public synchronized long getPaintCount() {
+
+        return paintCount;
+    }
+
+    /* Returns the average time of a paint in microseconds */
+    public synchronized double getAveragePaintMicros() {
+
+        return paintCount == 0 ? 0 : paintNanos / 1e3 / paintCount;
+    }
+
+    /* Returns the time of the last paint in nanoseconds */
+    public synchronized long getLastPaintNanos() {
+
+        return lastPaintNanos;
+    }
+
+    /* Returns the number of tile images painted from the board so far */
+    public synchronized long getTilesRendered() {
+
+        return tilesRendered;
+    }
+
+    /* Returns the number of tile images in the cache (event thread only) */
+    public int getCachedTileCount() {
+
+        return tiles.size();
+    }
+
+    /* Paints the tiles under the area being repainted, the hint shading, then the message */
+    protected void paintComponent(Graphics graphics) {
+
+        long start = System.nanoTime();
+
+        Graphics2D g = (Graphics2D) graphics;
+        Rectangle clip = g.getClipBounds();
+
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        Grid shownGrid;
+        ProbabilityEngine shownHints;
+        String shownMessage;
+        Color shownColor;
+
+        synchronized (this) {
+            shownGrid = grid;
+            shownHints = hints;
+            shownMessage = message;
+            shownColor = messageColor;
+        }
+
+        if (shownGrid != null) {
+            useGrid(shownGrid);
+            paintTiles(g, clip, shownGrid);
+
+            //Hints only mean something while the game is being played, and on cells big enough to see
+            if (shownHints != null && !shownGrid.isGameOver() && ZOOM_CELL_SIZES[zoom] >= DETAIL_CELL_SIZE)
+                paintHints(g, clip, shownGrid.getBoard(), shownHints);
+        }
+
+        paintMessage(g, shownMessage, shownColor);
+
+        long end = System.nanoTime();
+
+        EngineMetrics.record(EngineMetrics.REPAINT, start);
+
+        synchronized (this) {
+            lastPaintNanos = end - start;
+            paintNanos += lastPaintNanos;
+            paintCount++;
+
+            //This paint shows the changes of the input waiting to be painted
+            if (pendingInputNanos != 0) {
+                long latency = end - pendingInputNanos;
+
+                latencyCount++;
+                latencyNanos += latency;
+                maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+                pendingInputNanos = 0;
+            }
+        }
+    }
+
+    /* Drops the tiles of the grid shown before if grid is a new one, and goes back to full size cells
+    at the top left corner if its board has another size */
+    private void useGrid(Grid grid) {
+
+        if (grid == tileGrid) return;
+
+        tiles.clear();
+        tileGrid = grid;
+
+        if (grid.getBoard().getSize() != tileBoardSize) {
+            tileBoardSize = grid.getBoard().getSize();
+            zoom = DEFAULT_ZOOM;
+            scrollX = 0;
+            scrollY = 0;
+        }
+    }
+
+    /* Copies the tiles that overlap clip onto the view, painting those that are missing or stale */
+    private void paintTiles(Graphics2D g, Rectangle clip, Grid grid) {
+
+        int n = grid.getBoard().getSize();
+        int cellSize = ZOOM_CELL_SIZES[zoom];
+        int tileCells = tileCells(zoom);
+        int tileSize = tileCells * cellSize;
+        int lastTile = (n - 1) / tileCells;
+
+        //Range of tiles under the clip
+        int firstTileCol = Math.max(0, Math.floorDiv(clip.x - boardX(), tileSize));
+        int firstTileRow = Math.max(0, Math.floorDiv(clip.y - boardY(), tileSize));
+        int lastTileCol = Math.min(lastTile, Math.floorDiv(clip.x + clip.width - 1 - boardX(), tileSize));
+        int lastTileRow = Math.min(lastTile, Math.floorDiv(clip.y + clip.height - 1 - boardY(), tileSize));
+
+        for (int tileRow = firstTileRow; tileRow <= lastTileRow; tileRow++) {
+
+            for (int tileCol = firstTileCol; tileCol <= lastTileCol; tileCol++) {
+
+                Tile tile = tileAt(grid, tileRow, tileCol);
+                int x = boardX() + tileCol * tileSize;
+                int y = boardY() + tileRow * tileSize;
+
+                //Only the top left part of the image a tile is painted in is its own
+                g.drawImage(tile.image, x, y, x + tile.width, y + tile.height, 0, 0, tile.width, tile.height, null);
+            }
+        }
+    }
+
+    /* Returns the up to date tile of the current zoom step at [tileRow][tileCol], painting it if needed */
+    private Tile tileAt(Grid grid, int tileRow, int tileCol) {
+
+        long key = tileKey(zoom, tileRow, tileCol);
+        Tile tile = tiles.get(key);
+
+        if (tile == null) {
+            int n = grid.getBoard().getSize();
+            int tileCells = tileCells(zoom);
+
+            tile = new Tile(tileRow * tileCells, tileCol * tileCells,
+                Math.min(n, (tileRow + 1) * tileCells) - 1, Math.min(n, (tileCol + 1) * tileCells) - 1,
+                ZOOM_CELL_SIZES[zoom]);
+
+            tile.image = tileImage();
+            tiles.put(key, tile);
+        }
+        else if (!tile.stale) {
+            return tile;
+        }
+
+        renderTile(tile, grid);
+        tile.stale = false;
+
+        return tile;
+    }
+
+    /* Returns an image for a new tile: the image of the least recently used tile, which is dropped,
+    once the cache is full, so panning around a big board allocates nothing */
+    private BufferedImage tileImage() {
+
+        if (tiles.size() < MAX_TILES)
+            return new BufferedImage(TILE_IMAGE_SIZE, TILE_IMAGE_SIZE, BufferedImage.TYPE_INT_RGB);
+
+        Iterator<Tile> eldest = tiles.values().iterator();
+        BufferedImage image = eldest.next().image;
+        eldest.remove();
+
+        return image;
+    }
+
+    /* Paints the cells of tile from the board of grid into its image */
+    private void renderTile(Tile tile, Grid grid) {
+
+        Board board = grid.getBoard();
+        int cellSize = ZOOM_CELL_SIZES[zoom];
+        boolean showMines = grid.isGameOver();
+
+        EngineMetrics.cellsPainted((tile.lastRow - tile.firstRow + 1) * (tile.lastCol - tile.firstCol + 1));
+
+        synchronized (this) {
+            tilesRendered++;
+        }
+
+        if (cellSize < DETAIL_CELL_SIZE) {
+            renderFlatTile(tile, board, cellSize, showMines);
+            return;
+        }
+
+        Graphics2D g = tile.image.createGraphics();
+
+        g.setColor(getBackground());
+        g.fillRect(0, 0, tile.width, tile.height);
+
+        //Cells are painted at full size and scaled to the zoom step
+        g.scale((double) cellSize / GridCell.CELL_SIZE, (double) cellSize / GridCell.CELL_SIZE);
+
+        for (int row = tile.firstRow; row <= tile.lastRow; row++) {
+
+            for (int col = tile.firstCol; col <= tile.lastCol; col++) {
+
+                GridCell.paint(g, board, board.indexOf(row, col), (col - tile.firstCol) * GridCell.CELL_SIZE,
+                    (row - tile.firstRow) * GridCell.CELL_SIZE, showMines);
+            }
+        }
+        g.dispose();
+    }
+
+    /* Paints every cell of tile as a block of its flat color, with a darker edge on blocks big enough
+    to show one, and copies the pixels into the tile's image in one go */
+    private void renderFlatTile(Tile tile, Board board, int cellSize, boolean showMines) {
+
+        int width = tile.width;
+        int height = tile.height;
+
+        //The extra pixel row and column past the last cells stay background
+        Arrays.fill(tilePixels, 0, width * height, getBackground().getRGB() & 0xFFFFFF);
+
+        int exploded = board.getExplodedIndex();
+
+        for (int row = tile.firstRow; row <= tile.lastRow; row++) {
+
+            for (int col = tile.firstCol; col <= tile.lastCol; col++) {
+
+                int index = board.indexOf(row, col);
+                int rgb;
+
+                if (index == exploded) rgb = EXPLODED_RGB;
+                else if (showMines && board.containsMine(index)) rgb = MINE_RGB;
+                else if (board.containsFlag(index)) rgb = FLAG_RGB;
+                else if (board.isRevealed(index)) rgb = REVEALED_RGB[board.getNeighborMineCount(index)];
+                else rgb = HIDDEN_RGB;
+
+                //Three quarters of the color, channel by channel
+                int edge = (rgb >> 2 & 0x3F3F3F) * 3;
+
+                int x = (col - tile.firstCol) * cellSize;
+                int y = (row - tile.firstRow) * cellSize;
+
+                for (int dy = 0; dy < cellSize; dy++) {
+
+                    int offset = (y + dy) * width + x;
+
+                    for (int dx = 0; dx < cellSize; dx++)
+                        tilePixels[offset + dx] = (cellSize >= 4 && (dx == cellSize - 1 || dy == cellSize - 1)) ? edge : rgb;
+                }
+            }
+        }
+
+        //Copying through the raster (rather than writing its data array) keeps the image accelerated
+        tile.image.getRaster().setDataElements(0, 0, width, height, tilePixels);
+    }
+
+    /* Shades the hidden cells that overlap clip by their mine probability from hints */
+    private void paintHints(Graphics2D g, Rectangle clip, Board board, ProbabilityEngine hints) {
+
+        int n = board.getSize();
+        int cellSize = ZOOM_CELL_SIZES[zoom];
+
+        //Range of rows and columns under the clip
+        int firstCol = Math.max(0, Math.floorDiv(clip.x - boardX(), cellSize));
+        int firstRow = Math.max(0, Math.floorDiv(clip.y - boardY(), cellSize));
+        int lastCol = Math.min(n - 1, Math.floorDiv(clip.x + clip.width - 1 - boardX(), cellSize));
+        int lastRow = Math.min(n - 1, Math.floorDiv(clip.y + clip.height - 1 - boardY(), cellSize));
+
+        //Shades are painted at full size and scaled to the zoom step, like the cells under them
+        Graphics2D shade = (Graphics2D) g.create();
+        shade.translate(boardX(), boardY());
+        shade.scale(getScale(), getScale());
+
+        //Hold the engine so a move made meanwhile doesn't show half updated
+        synchronized (hints) {
+            for (int row = firstRow; row <= lastRow; row++) {
+
+                for (int col = firstCol; col <= lastCol; col++) {
+
+                    int index = board.indexOf(row, col);
+                    float probability = hints.getProbability(index);
+
+                    //Flags keep their own color
+                    if (probability != ProbabilityEngine.REVEALED && !board.containsFlag(index))
+                        GridCell.paintHint(shade, probability, col * GridCell.CELL_SIZE, row * GridCell.CELL_SIZE);
+                }
+            }
+        }
+        shade.dispose();
+    }
+
+    /* Paints the game status message, centered horizontally, over a light backdrop in case the
+    board reaches under it */
+    private void paintMessage(Graphics2D g, String message, Color messageColor) {
+
+        //If there's no message to be displayed, exit method
+        if (message == null) return;
+
+        g.setFont(MESSAGE_FONT);
+
+        FontMetrics metrics = g.getFontMetrics();
+        int x = (getWidth() - metrics.stringWidth(message)) / 2;
+
+        g.setColor(MESSAGE_BACKDROP);
+        g.fillRect(x - 8, MESSAGE_Y, metrics.stringWidth(message) + 16, metrics.getHeight());
+
+        g.setColor(messageColor);
+        g.drawString(message, x, MESSAGE_Y + metrics.getAscent());
+    }
+
+    /* Returns the area of the view covering the cells from [minRow][minCol] to [maxRow][maxCol] */
+    private Rectangle cellArea(int minRow, int minCol, int maxRow, int maxCol) {
+
+        int cellSize = ZOOM_CELL_SIZES[zoom];
+
+        return new Rectangle(boardX() + minCol * cellSize, boardY() + minRow * cellSize,
+            (maxCol - minCol + 1) * cellSize + 1, (maxRow - minRow + 1) * cellSize + 1);
+    }
+
+    /* Scrolls the view to (x, y), kept within the board and its margins */
+    private void scrollTo(int x, int y) {
+
+        Grid shownGrid = getGrid();
+        int n = (shownGrid == null) ? 0 : shownGrid.getBoard().getSize();
+
+        //The board with a margin of START_LOC on every side
+        int extent = 2 * (int) Math.round(Grid.START_LOC * getScale()) + n * ZOOM_CELL_SIZES[zoom];
+
+        scrollX = Math.max(0, Math.min(extent - getWidth(), x));
+        scrollY = Math.max(0, Math.min(extent - getHeight(), y));
+    }
+
+    /* Returns the x coord of the left edge of the board */
+    private int boardX() {
+
+        return (int) Math.round(Grid.START_LOC * getScale()) - scrollX;
+    }
+
+    /* Returns the y coord of the top edge of the board */
+    private int boardY() {
+
+        return (int) Math.round(Grid.START_LOC * getScale()) - scrollY;
+    }
+
+    /* Returns the number of cells across a tile at zoom step */
+    private static int tileCells(int step) {
+
+        return Math.max(1, TILE_PIXELS / ZOOM_CELL_SIZES[step]);
+    }
+
+    /* Returns the cache key of the tile at [tileRow][tileCol] of zoom step */
+    private static long tileKey(int step, int tileRow, int tileCol) {
+
+        return (long) step << 56 | (long) tileRow << 28 | tileCol;
+    }
+
+    /* Returns the smallest rectangle holding both area (which may be null) and more */
+    private static Rectangle union(Rectangle area, Rectangle more) {
+
+        return (area == null) ? more : area.union(more);
+    }
+
+    /**
+     * A cached image of a square of cells, stale once a move changed one of them.
+     */
+    private static class Tile
+    {
+        final int firstRow;
+        final int firstCol;
+        final int lastRow;
+        final int lastCol;
+
+        //Part of the image the tile is painted in: its cells and their right and bottom grid lines
+        final int width;
+        final int height;
+
+        BufferedImage image;
+        boolean stale = false;
+
+        Tile(int firstRow, int firstCol, int lastRow, int lastCol, int cellSize) {
+
+            this.firstRow = firstRow;
+            this.firstCol = firstCol;
+            this.lastRow = lastRow;
+            this.lastCol = lastCol;
+
+            width = (lastCol - firstCol + 1) * cellSize + 1;
+            height = (lastRow - firstRow + 1) * cellSize + 1;
+        }
+
+        /* Returns whether the tile holds any of the cells from [cells[0]][cells[1]] to [cells[2]][cells[3]] */
+        boolean overlaps(int[] cells) {
+
+            return cells[0] <= lastRow && cells[2] >= firstRow && cells[1] <= lastCol && cells[3] >= firstCol;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+/**
+ * EngineMetrics measures the hot paths of the engine and the board view: a latency histogram for each
+ * operation (grid construction, mine placement, neighbor counts, cell lookup, left and right clicks,
+ * repaint) and counters of games started, won and lost per level, of live grids and of cells painted.
+ * Metrics are off unless the JVM is started with -Dminesweeper.metrics=true. ENABLED is a static final
+ * flag, so when it is off the JIT removes every call below from the hot paths and they cost nothing.
+ *
+ * When on, the metrics are published as the MXBean minesweeper:type=EngineMetrics (see jconsole)
+ * and, with -Dminesweeper.metrics.dumpSeconds=n, printed every n seconds. A histogram has one bucket
+ * per power of two of nanoseconds, so recording a time is a single atomic increment.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class EngineMetrics
+{
+    public static final boolean ENABLED = Boolean.getBoolean("minesweeper.metrics");
+
+    //Operations with a latency histogram
+    public static final int GRID_CONSTRUCTION = 0;
+    public static final int RANDOMIZE_MINES = 1;
+    public static final int NEIGHBOR_COUNTS = 2;
+    public static final int CELL_LOOKUP = 3;
+    public static final int LEFT_CLICK = 4;
+    public static final int RIGHT_CLICK = 5;
+    public static final int REPAINT = 6;
+
+    private static final String[] OPERATION_NAMES = {
+        "GridConstruction", "RandomizeMines", "NeighborCounts", "CellLookup", "LeftClick", "RightClick", "Repaint"
+    };
+
+    //Bucket b counts the times of at least 2^(b-1) and less than 2^b nanoseconds (bucket 0 is 0 ns)
+    private static final int BUCKETS = 64;
+
+    private static final AtomicLongArray HISTOGRAMS = new AtomicLongArray(OPERATION_NAMES.length * BUCKETS);
+
+    //Games started, won and lost, keyed by level
+    private static final int STARTED = 0;
+    private static final int WON = 1;
+    private static final int LOST = 2;
+    private static final Map<Integer, AtomicLongArray> GAMES = new ConcurrentHashMap<Integer, AtomicLongArray>();
+
+    private static final LongAdder LIVE_GRIDS = new LongAdder();
+    private static final LongAdder CELLS_PAINTED = new LongAdder();
+
+    //Counts grids down once they have been garbage collected (only created when metrics are on)
+    private static final Cleaner CLEANER = ENABLED ? Cleaner.create() : null;
+
+    static {
+        if (ENABLED)
+            publish();
+    }
+
+    //EngineMetrics only has static methods
+    private EngineMetrics() {}
+
+    /* Returns the start time of an operation to pass to record (0 when metrics are off) */
+    public static long start() {
+
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /* Records the time of operation since startNanos (from start) */
+    public static void record(int operation, long startNanos) {
+
+        if (!ENABLED) return;
+
+        long elapsed = System.nanoTime() - startNanos;
+        int bucket = BUCKETS - Long.numberOfLeadingZeros(Math.max(0, elapsed));
+
+        HISTOGRAMS.incrementAndGet(operation * BUCKETS + Math.min(bucket, BUCKETS - 1));
+    }
+
+    /* Counts a game started at level */
+    public static void gameStarted(int level) {
+
+        if (ENABLED) countGame(level, STARTED);
+    }
+
+    /* Counts a game won at level */
+    public static void gameWon(int level) {
+
+        if (ENABLED) countGame(level, WON);
+    }
+
+    /* Counts a game lost at level */
+    public static void gameLost(int level) {
+
+        if (ENABLED) countGame(level, LOST);
+    }
+
+    /* Takes back a win counted at level (the winning move was undone) */
+    public static void winUndone(int level) {
+
+        if (ENABLED) uncountGame(level, WON);
+    }
+
+    /* Takes back a loss counted at level (the losing move was undone) */
+    public static void lossUndone(int level) {
+
+        if (ENABLED) uncountGame(level, LOST);
+    }
+
+    /* Counts grid as live until it is garbage collected */
+    public static void gridCreated(Grid grid) {
+
+        if (!ENABLED) return;
+
+        LIVE_GRIDS.increment();
+        CLEANER.register(grid, LIVE_GRIDS::decrement);
+    }
+
+    /* Counts cells painted by the board view */
+    public static void cellsPainted(int cells) {
+
+        if (ENABLED) CELLS_PAINTED.add(cells);
+    }
+
+    /* Returns the number of times operation was recorded */
+    public static long getCount(int operation) {
+
+        long count = 0;
+
+        for (int b = 0; b < BUCKETS; b++)
+            count += HISTOGRAMS.get(operation * BUCKETS + b);
+
+        return count;
+    }
+
+    /* Returns an upper bound, in nanoseconds, of the time that percent (0 to 100) of the recorded
+    times of operation were within (the top of the bucket holding that time), or 0 if none */
+    public static long getPercentileNanos(int operation, double percent) {
+
+        long count = getCount(operation);
+
+        if (count == 0) return 0;
+
+        long target = (long) Math.ceil(count * percent / 100);
+        long seen = 0;
+
+        for (int b = 0; b < BUCKETS; b++) {
+
+            seen += HISTOGRAMS.get(operation * BUCKETS + b);
+
+            if (seen >= Math.max(1, target))
+                return b == 0 ? 0 : (1L << b) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /* Returns one line per operation with its count and p50/p99/max */
+    public static String summary() {
+
+        StringBuilder text = new StringBuilder();
+
+        for (int op = 0; op < OPERATION_NAMES.length; op++) {
+
+            long count = getCount(op);
+            if (count == 0) continue;
+
+            text.append(String.format("%-16s %,12d  p50 < %s  p99 < %s  max < %s%n", OPERATION_NAMES[op], count,
+                formatNanos(getPercentileNanos(op, 50)), formatNanos(getPercentileNanos(op, 99)),
+                formatNanos(getPercentileNanos(op, 100))));
+        }
+
+        for (Map.Entry<String, Long> counter : counters().entrySet())
+            text.append(String.format("%-16s %,12d%n", counter.getKey(), counter.getValue()));
+
+        return text.toString();
+    }
+
+    /* Returns every counter by name */
+    private static Map<String, Long> counters() {
+
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+
+        for (Map.Entry<Integer, AtomicLongArray> level : GAMES.entrySet()) {
+            counters.put("Level" + level.getKey() + "Started", level.getValue().get(STARTED));
+            counters.put("Level" + level.getKey() + "Won", level.getValue().get(WON));
+            counters.put("Level" + level.getKey() + "Lost", level.getValue().get(LOST));
+        }
+
+        counters.put("LiveGrids", LIVE_GRIDS.sum());
+        counters.put("CellsPainted", CELLS_PAINTED.sum());
+
+        return counters;
+    }
+
+    /* Adds one to counter of level */
+    private static void countGame(int level, int counter) {
+
+        GAMES.computeIfAbsent(level, key -> new AtomicLongArray(3)).incrementAndGet(counter);
+    }
+
+    /* Takes one away from counter of level */
+    private static void uncountGame(int level, int counter) {
+
+        GAMES.computeIfAbsent(level, key -> new AtomicLongArray(3)).decrementAndGet(counter);
+    }
+
+    /* Formats a time in nanoseconds with a readable unit */
+    private static String formatNanos(long nanos) {
+
+        if (nanos < 10000) return nanos + " ns";
+        if (nanos < 10000000) return nanos / 1000 + " us";
+        return nanos / 1000000 + " ms";
+    }
+
+    /* Registers the MXBean and starts the periodic dump if one was asked for */
+    private static void publish() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(),
+                new ObjectName("minesweeper:type=EngineMetrics"));
+        }
+        catch (Exception e) {
+            System.err.println("Engine metrics not published over JMX: " + e);
+        }
+
+        long dumpSeconds = Long.getLong("minesweeper.metrics.dumpSeconds", 0);
+
+        if (dumpSeconds > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> System.out.print(summary()), dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The management interface of the metrics, as seen in jconsole.
+     */
+    public interface EngineMetricsMXBean
+    {
+        /* Counters by name (games started, won and lost per level, live grids, cells painted) */
+        Map<String, Long> getCounters();
+
+        /* Count and 50th/99th percentile (in nanoseconds) of each operation, by name */
+        Map<String, long[]> getLatencies();
+
+        /* Raw histogram buckets of operation (bucket b: times below 2^b nanoseconds) */
+        long[] histogram(String operation);
+
+        /* The summary printed by the periodic dump */
+        String getSummary();
+    }
+
+    /**
+     * The MXBean registered with the platform MBean server.
+     */
+    private static class Bean implements EngineMetricsMXBean
+    {
+        public Map<String, Long> getCounters() {
+
+            return counters();
+        }
+
+        public Map<String, long[]> getLatencies() {
+
+            Map<String, long[]> latencies = new LinkedHashMap<String, long[]>();
+
+            for (int op = 0; op < OPERATION_NAMES.length; op++)
+                latencies.put(OPERATION_NAMES[op],
+                    new long[] { getCount(op), getPercentileNanos(op, 50), getPercentileNanos(op, 99) });
+
+            return latencies;
+        }
+
+        public long[] histogram(String operation) {
+
+            for (int op = 0; op < OPERATION_NAMES.length; op++) {
+
+                if (!OPERATION_NAMES[op].equals(operation)) continue;
+
+                long[] buckets = new long[BUCKETS];
+                for (int b = 0; b < BUCKETS; b++)
+                    buckets[b] = HISTOGRAMS.get(op * BUCKETS + b);
+
+                return buckets;
+            }
+            throw new IllegalArgumentException("No operation " + operation);
+        }
+
+        public String getSummary() {
+
+            return summary();
+        }
+    }
+}
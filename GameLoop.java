@@ -0,0 +1,151 @@
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+/**
+ * GameLoop runs every change to the game on a single game thread, so the Swing event thread only
+ * turns mouse presses and buttons into commands and never waits on the game. Commands run one at a
+ * time, in the order they were submitted. Instead of touching Swing components, a command marks the
+ * display as changed; a frame timer on the event thread then applies all changes made since the last
+ * frame in one go (at most once per frame). The loop counts how many commands are waiting.
+ *
+ * Only the game thread changes the grid; the event thread may paint while a command is running, in
+ * which case the next frame repaints whatever changed.
+ *
+ * A command that throws leaves the game half changed, so the loop stops there: the game thread dies
+ * with the exception, later commands are dropped, and the next frame hands the exception to the
+ * failure handler on the event thread instead of applying any more changes.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class GameLoop
+{
+    //Time between two frames (about 60 frames per second)
+    private static final int FRAME_MILLIS = 16;
+
+    private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<Runnable>();
+
+    //Number of commands submitted but not yet run, and the most there have ever been
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    //Set by commands, cleared by the frame that applies their changes
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+
+    //Time (System.nanoTime) of the oldest input whose changes have not been applied yet, 0 if none
+    private final AtomicLong oldestInputNanos = new AtomicLong();
+
+    //Exception thrown by the command that stopped the loop, null while it is running
+    private volatile RuntimeException failure;
+
+    private final Runnable frame;
+    private final Consumer<RuntimeException> failed;
+    private final javax.swing.Timer frameTimer;
+
+    /* Constructs the loop and starts its game thread; frame is run on the event thread at most once
+    per frame, whenever commands have changed the game since the last frame, and failed is run on the
+    event thread once if a command throws */
+    public GameLoop(Runnable frame, Consumer<RuntimeException> failed) {
+
+        this.frame = frame;
+        this.failed = failed;
+
+        Thread gameThread = new Thread(this::run, "game-loop");
+        gameThread.setDaemon(true);
+        gameThread.start();
+
+        frameTimer = new javax.swing.Timer(FRAME_MILLIS, event -> applyFrame());
+        frameTimer.start();
+    }
+
+    /* Queues command to run on the game thread (can be called from any thread) */
+    public void submit(Runnable command) {
+
+        //Nothing runs after a failed command
+        if (failure != null) return;
+
+        long inputNanos = System.nanoTime();
+
+        maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+
+        commands.add(() -> {
+            command.run();
+
+            //Remember when the oldest change waiting for the next frame was asked for
+                //(unless the frame has not yet taken an older one)
+            oldestInputNanos.compareAndSet(0, inputNanos);
+
+            changed.set(true);
+        });
+    }
+
+    /* Returns the number of commands waiting to run */
+    public int getQueueDepth() {
+
+        return queueDepth.get();
+    }
+
+    /* Returns the largest number of commands that have ever been waiting at once */
+    public int getMaxQueueDepth() {
+
+        return maxQueueDepth.get();
+    }
+
+    /* Returns the time (System.nanoTime) of the oldest input not yet on screen and forgets it
+    (called by the frame that puts that input's changes on screen) */
+    public long takeOldestInputNanos() {
+
+        return oldestInputNanos.getAndSet(0);
+    }
+
+    /* Returns the exception that stopped the loop, or null if every command has run normally */
+    public RuntimeException getFailure() {
+
+        return failure;
+    }
+
+    /* Game thread: runs commands one after the other, until one of them throws */
+    private void run() {
+
+        while (true) {
+
+            Runnable command;
+
+            try {
+                command = commands.take();
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                command.run();
+            }
+            catch (RuntimeException e) {
+                //The game may be half changed, so stop and let the thread die with the exception
+                failure = e;
+                commands.clear();
+                throw e;
+            }
+            finally {
+                queueDepth.decrementAndGet();
+            }
+        }
+    }
+
+    /* Event thread: applies the changes of every command run since the last frame */
+    private void applyFrame() {
+
+        if (failure != null) {
+            frameTimer.stop();
+            failed.accept(failure);
+            return;
+        }
+
+        if (changed.getAndSet(false))
+            frame.run();
+    }
+}
@@ -0,0 +1,291 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * GameServer hosts any number of independent headless games (sessions) in one JVM and lets clients
+ * play them over a small line-based protocol on a localhost socket. Each session is just a headless
+ * Grid in a concurrent map, a few hundred bytes at the game levels, so 100k idle sessions fit in a
+ * modest heap. A session belongs to the server rather than to a connection: any connection may play
+ * it until it is ended with END. Every connection is served by its own virtual thread when the JVM
+ * has them (Java 21 and later); on older JVMs it falls back to a pool of platform threads.
+ *
+ * Protocol (one request per line, one reply line per request; rows and columns start at 0):
+ *   NEW level [seed]    ->  OK id size mines
+ *   OPEN id row col     ->  OK cellsRevealed status
+ *   FLAG id row col     ->  OK flags status
+ *   SHOW id             ->  OK status cells   (size*size chars, row by row: . hidden, F flag,
+ *                                              0-8 count, * mine shown once the game is over)
+ *   END id              ->  OK
+ *   QUIT                ->  (connection closed)
+ * where status is PLAYING, WON or LOST. A bad request is answered with ERR and a message.
+ *
+ * Usage: java GameServer [port]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class GameServer
+{
+    public static final int DEFAULT_PORT = 7070;
+
+    //Largest level a session may ask for (a level x level board)
+    private static final int MAX_LEVEL = 100;
+
+    private final ConcurrentHashMap<Long, Grid> sessions = new ConcurrentHashMap<Long, Grid>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong moves = new AtomicLong();
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = newConnectionExecutor();
+
+    /* Constructs a server listening on port of the loopback address only (0 picks a free port) */
+    public GameServer(int port) throws IOException {
+
+        serverSocket = new ServerSocket(port, 1000, InetAddress.getLoopbackAddress());
+    }
+
+    /* Returns the port the server listens on */
+    public int getPort() {
+
+        return serverSocket.getLocalPort();
+    }
+
+    /* Returns the number of sessions being played */
+    public int getSessionCount() {
+
+        return sessions.size();
+    }
+
+    /* Returns the number of OPEN and FLAG requests served */
+    public long getMoveCount() {
+
+        return moves.get();
+    }
+
+    /* Accepts connections until the server is closed, serving each on a thread of its own */
+    public void serve() {
+
+        while (!serverSocket.isClosed()) {
+
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handleConnection(socket));
+            }
+            catch (IOException e) {
+                if (!serverSocket.isClosed())
+                    System.err.println("Accept failed: " + e);
+            }
+        }
+    }
+
+    /* Starts serving on a background thread */
+    public void start() {
+
+        Thread acceptor = new Thread(this::serve, "game-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /* Stops accepting connections and closes the server */
+    public void close() throws IOException {
+
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    /* Reads requests from one connection and answers each of them until QUIT or end of input */
+    private void handleConnection(Socket socket) {
+
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            s.setTcpNoDelay(true);
+
+            String line;
+
+            while ((line = in.readLine()) != null) {
+
+                if (line.trim().equals("QUIT")) break;
+
+                out.write(handleRequest(line));
+                out.write('\n');
+
+                //Replies to pipelined requests go out together once no more requests are waiting
+                if (!in.ready())
+                    out.flush();
+            }
+        }
+        catch (IOException e) {
+            //The client went away: its sessions stay until they are ended
+        }
+    }
+
+    /* Returns the reply to one request line */
+    String handleRequest(String line) {
+
+        String[] words = line.trim().split("\\s+");
+
+        try {
+            switch (words[0]) {
+
+                case "NEW":
+                    return newSession(words);
+
+                case "OPEN":
+                case "FLAG":
+                    return move(words);
+
+                case "SHOW":
+                    return show(words);
+
+                case "END":
+                    expect(words, 2);
+                    return sessions.remove(Long.parseLong(words[1])) != null ? "OK" : "ERR no such session";
+
+                default:
+                    return "ERR unknown request " + words[0];
+            }
+        }
+        catch (NumberFormatException e) {
+            return "ERR bad number in " + line;
+        }
+        catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    /* NEW level [seed] */
+    private String newSession(String[] words) {
+
+        if (words.length != 2 && words.length != 3)
+            throw new IllegalArgumentException("usage: NEW level [seed]");
+
+        int level = Integer.parseInt(words[1]);
+        long seed = words.length == 3 ? Long.parseLong(words[2]) : new Random().nextLong();
+
+        if (level < 1 || level > MAX_LEVEL)
+            throw new IllegalArgumentException("level must be 1 to " + MAX_LEVEL);
+
+        long id = nextId.getAndIncrement();
+        sessions.put(id, new Grid(level, seed));
+
+        return "OK " + id + " " + level + " " + level;
+    }
+
+    /* OPEN id row col, FLAG id row col */
+    private String move(String[] words) {
+
+        expect(words, 4);
+
+        Grid grid = session(words[1]);
+        int row = Integer.parseInt(words[2]);
+        int col = Integer.parseInt(words[3]);
+
+        int size = grid.getBoard().getSize();
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IllegalArgumentException("no cell " + row + " " + col);
+
+        moves.incrementAndGet();
+
+        //Two connections may play the same session, so its moves are made one at a time
+        synchronized (grid) {
+            if (words[0].equals("OPEN"))
+                return "OK " + grid.handleLeftClick(row, col) + " " + status(grid);
+
+            grid.handleRightClick(row, col);
+            return "OK " + grid.countFlags() + " " + status(grid);
+        }
+    }
+
+    /* SHOW id */
+    private String show(String[] words) {
+
+        expect(words, 2);
+
+        Grid grid = session(words[1]);
+        Board board = grid.getBoard();
+
+        synchronized (grid) {
+            boolean showMines = grid.isGameOver();
+            StringBuilder reply = new StringBuilder(4 + 8 + board.getCellTotal());
+
+            reply.append("OK ").append(status(grid)).append(' ');
+
+            for (int index = 0; index < board.getCellTotal(); index++) {
+
+                if (board.isRevealed(index))
+                    reply.append((char) ('0' + board.getNeighborMineCount(index)));
+                else if (board.containsFlag(index))
+                    reply.append('F');
+                else if (showMines && board.containsMine(index))
+                    reply.append('*');
+                else
+                    reply.append('.');
+            }
+            return reply.toString();
+        }
+    }
+
+    /* Returns the grid of session id */
+    private Grid session(String id) {
+
+        Grid grid = sessions.get(Long.parseLong(id));
+
+        if (grid == null)
+            throw new IllegalArgumentException("no such session");
+
+        return grid;
+    }
+
+    /* Throws if a request doesn't have count words */
+    private static void expect(String[] words, int count) {
+
+        if (words.length != count)
+            throw new IllegalArgumentException("wrong number of arguments for " + words[0]);
+    }
+
+    /* Returns the status word of grid */
+    private static String status(Grid grid) {
+
+        return grid.isGameWon() ? "WON" : grid.isGameLost() ? "LOST" : "PLAYING";
+    }
+
+    /* Returns an executor that runs every task on a new virtual thread when the JVM has them,
+    otherwise a pool of platform threads (found by reflection, so the game still builds for Java 11) */
+    static ExecutorService newConnectionExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "game-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        GameServer server = new GameServer(port);
+        System.out.println("Game server listening on localhost:" + server.getPort());
+
+        server.serve();
+    }
+}
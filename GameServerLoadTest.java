@@ -0,0 +1,162 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+/**
+ * GameServerLoadTest opens many connections to a GameServer on localhost, creates many sessions on
+ * each and plays random moves on them as fast as the server answers, then reports the number of
+ * sessions, the heap they use, moves per second and the latency percentiles of a single move (the
+ * time from sending a request to reading its reply). Without a port it starts a server of its own
+ * in the same JVM. Each connection runs on a virtual thread when the JVM has them.
+ *
+ * Usage: java GameServerLoadTest [connections] [sessions per connection] [moves per connection] [port]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class GameServerLoadTest
+{
+    public static void main(String[] args) throws Exception {
+
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int sessionsPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int movesPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+
+        GameServer ownServer = null;
+        int port;
+
+        if (args.length > 3) {
+            port = Integer.parseInt(args[3]);
+        }
+        else {
+            ownServer = new GameServer(0);
+            ownServer.start();
+            port = ownServer.getPort();
+        }
+
+        long heapBefore = usedHeap();
+
+        ExecutorService clients = GameServer.newConnectionExecutor();
+        Future<?>[] results = new Future<?>[connections];
+        long[][] latencies = new long[connections][];
+
+        long start = System.nanoTime();
+
+        for (int c = 0; c < connections; c++) {
+
+            int client = c;
+            results[c] = clients.submit(() -> {
+                latencies[client] = playConnection(port, client, sessionsPerConnection, movesPerConnection);
+                return null;
+            });
+        }
+
+        for (Future<?> result : results)
+            result.get();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+
+        long[] all = new long[connections * movesPerConnection];
+        for (int c = 0; c < connections; c++)
+            System.arraycopy(latencies[c], 0, all, c * movesPerConnection, movesPerConnection);
+        Arrays.sort(all);
+
+        System.out.printf("%d connections, %,d sessions, %,d moves in %.2f s: %,.0f moves/s%n",
+            connections, (long) connections * sessionsPerConnection, all.length, seconds, all.length / seconds);
+        System.out.printf("move latency  p50 %.1f us  p90 %.1f us  p99 %.1f us  p99.9 %.1f us  max %.1f us%n",
+            percentile(all, 0.50) / 1e3, percentile(all, 0.90) / 1e3, percentile(all, 0.99) / 1e3,
+            percentile(all, 0.999) / 1e3, all[all.length - 1] / 1e3);
+
+        if (ownServer != null) {
+            System.out.printf("server holds %,d sessions in about %,d KB of heap%n",
+                ownServer.getSessionCount(), (usedHeap() - heapBefore) / 1024);
+            ownServer.close();
+        }
+    }
+
+    /* Creates sessions on one connection, plays moves random moves on them and returns the latency
+    of each move in nanoseconds; sessions are kept open afterwards, as idle sessions */
+    private static long[] playConnection(int port, int client, int sessionCount, int moves) throws IOException {
+
+        SplittableRandom random = new SplittableRandom(client);
+        long[] latencies = new long[moves];
+        long[] ids = new long[sessionCount];
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            socket.setTcpNoDelay(true);
+
+            for (int s = 0; s < sessionCount; s++)
+                ids[s] = newSession(in, out, random);
+
+            for (int m = 0; m < moves; m++) {
+
+                int s = random.nextInt(sessionCount);
+                String request = (random.nextInt(5) == 0 ? "FLAG " : "OPEN ") + ids[s] + " "
+                    + random.nextInt(Grid.EASY_LEVEL) + " " + random.nextInt(Grid.EASY_LEVEL);
+
+                long sent = System.nanoTime();
+                String reply = call(in, out, request);
+                latencies[m] = System.nanoTime() - sent;
+
+                //Replace a finished game with a new one
+                if (!reply.endsWith("PLAYING")) {
+                    call(in, out, "END " + ids[s]);
+                    ids[s] = newSession(in, out, random);
+                }
+            }
+
+            out.write("QUIT\n");
+            out.flush();
+        }
+        return latencies;
+    }
+
+    /* Creates an easy session and returns its id */
+    private static long newSession(BufferedReader in, Writer out, SplittableRandom random) throws IOException {
+
+        String reply = call(in, out, "NEW " + Grid.EASY_LEVEL + " " + random.nextLong());
+        return Long.parseLong(reply.split(" ")[1]);
+    }
+
+    /* Sends one request and returns its reply */
+    private static String call(BufferedReader in, Writer out, String request) throws IOException {
+
+        out.write(request);
+        out.write('\n');
+        out.flush();
+
+        String reply = in.readLine();
+
+        if (reply == null || !reply.startsWith("OK"))
+            throw new IOException("Request " + request + " failed: " + reply);
+
+        return reply;
+    }
+
+    /* Returns the value at fraction p of sorted values */
+    private static long percentile(long[] sorted, double p) {
+
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p) - 1)];
+    }
+
+    /* Returns the heap in use after a garbage collection */
+    private static long usedHeap() {
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,5 +1,4 @@
-import java.awt.*;
-import objectdraw.*;
+import java.util.Random;
 /**
  * Grid class constructs a grid of GridCells. Grid class is in charge of placing random mines across
  * the grid as well as setting all the non-mine cells with a count of neighboring mines. This class
@@ -9,298 +8,601 @@ import objectdraw.*;
  * and distributes this value throughout its methods to construct a larger, more challenging grid
  * with more randomly placed mines (if player chooses harder levels).
  *
+ * The state of every cell is kept in a headless Board, which a BoardView paints; after each move
+ * Grid tells the view which cells changed. A Grid built without a view runs the same game logic
+ * without any graphics.
+ *
  * @author Sabirah Shuaybi
  * @version 11/29/16
  */
 
 public class Grid
 {
-    //Start location (both x and y coord) of the grid construct
-    private static final int START_LOC = 20;
+    //Levels of difficulty (a level x level grid holding level mines)
+    public static final int EASY_LEVEL = 10;
+    public static final int MEDIUM_LEVEL = 15;
+    public static final int HARD_LEVEL = 20;
+    public static final int HUGE_LEVEL = 2000;
 
-    //Size of an individual grid cell
-    private static final int CELL_SIZE_MULTIPLIER = 30;
+    //Start location (both x and y coord) of the grid construct
+    public static final int START_LOC = 20;
 
-    private DrawingCanvas canvas;
-    private FilledRect mainRect;
-    private GridCell [][] cellArray;
+    //View the grid is drawn on (null for a headless grid)
+    private BoardView view;
+    private Board board;
     private int level;
 
+    //Seed the mines were placed from (the same seed always produces the same board)
+    private long seed;
+
+    //Stream the mines were drawn from; mines moved off the first click are drawn from it too
+    private MinePlacer placer;
+
+    //Whether the mines have been placed yet, and whether they still have to be moved off the
+        //first left click (only for grids made by withSafeFirstClick)
+    private boolean minesPlaced = true;
+    private boolean firstClickPending = false;
+
+    //Whether the mines are where the seed alone puts them (false once the first click moved any,
+        //or if they were given as a bitset)
+    private boolean minesFromSeed = true;
+
     //To keep track of whether game is in progress or game is over
     private boolean gameLost = false;
     private boolean gameWon = false;
 
+    //Whether a move was made yet (a game counts as started at its first move, see EngineMetrics)
+    private boolean started = false;
+
     /* Grid constructor also takes level as parameter to decided how to construct the grid (size)
     as well as the number of mines to randomly place on the grid */
-    public Grid(DrawingCanvas canvas, int level) {
+    public Grid(BoardView view, int level) {
+
+        this(view, level, new Random().nextLong());
+    }
+
+    /* Constructs the grid whose mines are placed from seed, so a game can be replayed exactly */
+    public Grid(BoardView view, int level, long seed) {
+
+        long start = EngineMetrics.start();
 
-        //Save reference to canvas to use throughout class
-        this.canvas = canvas;
         this.level = level;
+        this.seed = seed;
+
+        //Board is a level x level square holding level mines
+        board = new Board(level, level);
 
-        createGridCells(level);
         randomizeMines(level);
 
         setAllNeighborMineCounts();
+
+        EngineMetrics.gridCreated(this);
+        EngineMetrics.record(EngineMetrics.GRID_CONSTRUCTION, start);
+
+        //Only draw the grid if there is a view to draw it on
+        if (view != null)
+            showOn(view);
     }
 
-    /* Creates a dynamic grid whose size will vary depending on level of difficulty */
-    private void createGridCells(int n) {
+    /* Constructs a headless grid (no view, no graphics) to run the game logic only */
+    public Grid(int level) {
 
-        //Create a main underlying grid box of color gray
-        mainRect = new FilledRect
-        (START_LOC, START_LOC, (n * CELL_SIZE_MULTIPLIER), (n * CELL_SIZE_MULTIPLIER), canvas);
-        mainRect.setColor(Color.GRAY);
-        mainRect.sendToBack();
+        this((BoardView) null, level);
+    }
 
-        //Create and initialize 2D array of cells
-        cellArray = new GridCell[n][n];
+    /* Constructs a headless grid whose mines are placed from seed */
+    public Grid(int level, long seed) {
 
-        //Initial coordinates for a GridCell
-        int left = START_LOC;
-        int top = START_LOC;
+        this((BoardView) null, level, seed);
+    }
 
-        int counter = 0;
+    /* Constructs a headless grid whose mines are given as a bitset (see Board.copyMines) rather than
+    placed from seed, for example to resume a saved game; seed is only kept as the grid's seed
+    If mineWords is null the grid has no mines yet: see withSafeFirstClick */
+    public Grid(int level, long seed, long[] mineWords) {
 
-        //Loop through array and initialize every element with a GridCell
-        for(int i=0; i<cellArray.length; i++) {
-            for(int j=0; j<cellArray[i].length; j++) {
-                cellArray[i][j] = new GridCell(left, top, canvas);
+        long start = EngineMetrics.start();
 
-                //Increment counter after creation of evey new GridCell
-                counter++;
+        this.level = level;
+        this.seed = seed;
 
-                //Shift x coord of cell to the left of previous cell
-                left += GridCell.CELL_SIZE;
+        board = new Board(level, level);
 
-                //If n # of cells have been constructed, move construction to the next row
-                    //Note: value of n could be 10, 15, or 20 depending on level
-                if(counter%n == 0) {
-                    //Reset x coord at the start of each new row
-                    left = START_LOC;
-                    //Move y coord of cell down from previous row of cells
-                    top += GridCell.CELL_SIZE;
-                }
-            }
+        if (mineWords != null) {
+            board.restoreMines(mineWords);
+            minesFromSeed = false;
+            setAllNeighborMineCounts();
+        }
+        else {
+            minesPlaced = false;
+            firstClickPending = true;
         }
 
+        EngineMetrics.gridCreated(this);
+        EngineMetrics.record(EngineMetrics.GRID_CONSTRUCTION, start);
     }
 
-    /* Searches through the array of GridCells and returns the one that was clicked on */
-    public GridCell getClickedCellAt(Location point) {
+    /* Returns a headless grid whose mines are only placed at the first left click (from seed) and
+    kept off the clicked cell and its neighbors, so the first click can never hit a mine and always
+    opens a region. Until then the grid is an empty board, ready to be drawn at once */
+    public static Grid withSafeFirstClick(int level, long seed) {
 
-        for(int i=0; i<cellArray.length; i++) {
+        return new Grid(level, seed, (long[]) null);
+    }
 
-            for(int j=0; j<cellArray[i].length; j++) {
+    /* Returns a grid like withSafeFirstClick(level, seed) with a random seed */
+    public static Grid withSafeFirstClick(int level) {
 
-                if(cellArray[i][j].contains(point)) {
-                    //Exit method as soon as the clicked cell is found
-                    return cellArray[i][j];
-                }
-            }
-        }
-        //If click wasn't contained within any cell, return null
-        return null;
+        return withSafeFirstClick(level, new Random().nextLong());
     }
 
-    /* Randomly places a certain number of mines on the grid
-    (The higher the level of difficulty, the more mines will be present)*/
-    private void randomizeMines(int n) {
+    /* Places the mines of a grid made by withSafeFirstClick and computes its counts now rather than
+    at the first click (for example in the background), leaving the first click only the few mines
+    next to it to move. Does nothing if the mines are already placed */
+    public void prepareMines() {
 
-        //Construct a RandomIntGenerator ranging from 0-9 (index values of cell array)
-        RandomIntGenerator randomInt = new RandomIntGenerator(0, cellArray.length-1);
+        if (minesPlaced) return;
 
-        int counter = 0;
+        randomizeMines(level);
+        countAroundMines();
+        minesPlaced = true;
+    }
 
-        //Ensure that no more or no less than 10 mines are being assigned
-        while (counter <= n-1) {
+    /* Starts a new game on this grid with its mines placed from seed, just as new Grid(level, seed)
+    would place them, but on the board it already has: no arrays or objects are allocated, so a
+    headless run can play game after game on one grid. A grid on a view stays on it */
+    public void reset(long seed) {
 
-            int indexRow = randomInt.nextValue();
-            int indexCol = randomInt.nextValue();
+        reset(seed, false);
+    }
 
-            //First check to see if the randomly generated location is unique
-                //from all previous random locations in loop
-                //Significance: to prevent more than one mine being assigned to a cell
-            if (!(cellArray[indexRow][indexCol].containsMine())) {
+    /* Starts a new game on this grid like withSafeFirstClick(level, seed), on the board it already has */
+    public void resetWithSafeFirstClick(long seed) {
 
-                //Construct the mine at this random index
-                cellArray[indexRow][indexCol].makeMine();
+        reset(seed, true);
+    }
 
-                //Increment counter after creation of each UNIQUELY placed mine
-                counter++;
+    /* Empties the board and places the mines from seed now, or at the first left click if
+    safeFirstClick is true */
+    private void reset(long seed, boolean safeFirstClick) {
 
-            }
+        this.seed = seed;
 
-        }
+        board.clear();
+
+        gameLost = false;
+        gameWon = false;
+        started = false;
 
+        minesPlaced = false;
+        firstClickPending = safeFirstClick;
+        minesFromSeed = true;
+
+        if (!safeFirstClick)
+            prepareMines();
+
+        if (view != null)
+            view.setGrid(this);
     }
 
-    /* Checks if neighboring grid cells contain mines and if so, totals neighboring mines
-    Takes a 2D index value [i][j] as parameters so it can assess the
-    surrounding neighbors of the index passed in */
-    private int getNeighborMineCount(int i, int j) {
+    /* Determines if the mines are where the seed alone places them, so the seed is enough to rebuild
+    them (false once the first left click moved any, or if they were given as a bitset) */
+    public boolean areMinesFromSeed() {
 
-        int neighborCount = 0;
+        return minesFromSeed;
+    }
 
-        //The following if conditions ensure that the neighbor counts for
-            //border grid cells won't cross the bounds of the grid
+    /* Determines if the mines may still move off the first left click (see withSafeFirstClick) */
+    public boolean isFirstClickPending() {
 
-        if(i-1 >= 0 && j-1 >= 0) {
-            if(cellArray[i-1][j-1].containsMine())
-                neighborCount++;
-        }
+        return firstClickPending;
+    }
 
-        if(i-1 >= 0) {
-            if(cellArray[i-1][j].containsMine())
-                neighborCount++;
-        }
+    /* Places the mines if they aren't yet and moves every mine off the cell at index and its neighbors
+    (or off that cell alone if the rest of the board has no room for them), each to a free cell drawn
+    from the seed's stream, so the same seed and first click always give the same board
+    Only the counts around each moved mine are fixed, rather than counting the whole board again */
+    void clearStartArea(int index) {
 
-        if(i-1 >= 0 && j+1 <= cellArray.length-1) {
-            if(cellArray[i-1][j+1].containsMine())
-                neighborCount++;
-        }
+        if (!firstClickPending) return;
 
-        if(j-1 >= 0) {
-            if(cellArray[i][j-1].containsMine())
-                neighborCount++;
-        }
+        prepareMines();
+        firstClickPending = false;
 
-        if(j+1 <= cellArray.length-1) {
-            if(cellArray[i][j+1].containsMine())
-                neighborCount++;
-        }
+        int n = board.getSize();
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
+
+        int firstRow = Math.max(row - 1, 0), lastRow = Math.min(row + 1, n - 1);
+        int firstCol = Math.max(col - 1, 0), lastCol = Math.min(col + 1, n - 1);
 
-        if(i+1 <= cellArray.length-1 && j-1 >= 0) {
-            if(cellArray[i+1][j-1].containsMine())
-                neighborCount++;
+        //Room for the mines outside the start area
+        int areaMines = countMines(firstRow, lastRow, firstCol, lastCol);
+        int areaCells = (lastRow - firstRow + 1) * (lastCol - firstCol + 1);
+        int free = board.getCellTotal() - areaCells - (board.getMineTotal() - areaMines);
+
+        if (free < areaMines) {
+            firstRow = lastRow = row;
+            firstCol = lastCol = col;
+            areaMines = countMines(row, row, col, col);
+
+            //A board made only of mines has no safe cell at all
+            if (board.getCellTotal() - 1 - (board.getMineTotal() - areaMines) < areaMines) return;
         }
 
-        if(i+1 <= cellArray.length-1) {
-            if(cellArray[i+1][j].containsMine())
-                neighborCount++;
+        for (int i = firstRow; i <= lastRow; i++) {
+
+            for (int j = firstCol; j <= lastCol; j++) {
+
+                int from = board.indexOf(i, j);
+                if (!board.containsMine(from)) continue;
+
+                //Draw cells until one is free and outside the start area
+                int to;
+                int toRow;
+                int toCol;
+                do {
+                    to = placer.nextInt(board.getCellTotal());
+                    toRow = board.rowOf(to);
+                    toCol = board.colOf(to);
+                } while (board.containsMine(to)
+                    || (toRow >= firstRow && toRow <= lastRow && toCol >= firstCol && toCol <= lastCol));
+
+                moveMine(from, to);
+            }
         }
+    }
+
+    /* Returns the number of mines in rows firstRow to lastRow and columns firstCol to lastCol */
+    private int countMines(int firstRow, int lastRow, int firstCol, int lastCol) {
 
-        if(i+1 <= cellArray.length-1 && j+1 <= cellArray.length-1) {
-            if(cellArray[i+1][j+1].containsMine())
-                neighborCount++;
+        int mines = 0;
+
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstCol; j <= lastCol; j++) {
+                if (board.containsMine(board.indexOf(i, j)))
+                    mines++;
+            }
         }
+        return mines;
+    }
+
+    /* Moves the mine at from to the empty cell to, updating only the counts of the cells around
+    the two (a mine cell keeps a count of 0, as NeighborCounter leaves it) */
+    private void moveMine(int from, int to) {
+
+        minesFromSeed = false;
 
-        //Return the total number of neighbors with mines
-        return neighborCount;
+        board.removeMine(from);
+        changeNeighborCounts(from, -1);
+        board.setNeighborMineCount(from, NeighborCounter.countAt(board, from));
+
+        board.placeMine(to);
+        board.setNeighborMineCount(to, 0);
+        changeNeighborCounts(to, 1);
     }
 
-    /* Evaluates neighbor count and sets all counts for all cells
-    Sets the counts but actual number is hidden (only displayed on a left-click */
-    private void setAllNeighborMineCounts() {
+    /* Adds change to the count of every non-mine neighbor of the cell at index */
+    private void changeNeighborCounts(int index, int change) {
 
-        for(int i=0; i<cellArray.length; i++) {
+        int n = board.getSize();
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
 
-            for(int j=0; j<cellArray[i].length; j++) {
+        for (int i = Math.max(row - 1, 0); i <= Math.min(row + 1, n - 1); i++) {
 
-                if(!(cellArray[i][j].containsMine())) {
+            for (int j = Math.max(col - 1, 0); j <= Math.min(col + 1, n - 1); j++) {
 
-                    int neighborCount = getNeighborMineCount(i,j);
+                int neighbor = board.indexOf(i, j);
 
-                    cellArray[i][j].setNeighborMineCount(neighborCount);
-                }
+                if (neighbor != index && !board.containsMine(neighbor))
+                    board.setNeighborMineCount(neighbor, board.getNeighborMineCount(neighbor) + change);
             }
         }
+    }
+
+    /* Draws the grid on view, replacing whatever view showed before; also used to draw a grid
+    that was constructed headless (for example ahead of time, in the background) */
+    public void showOn(BoardView view) {
 
+        this.view = view;
+        view.setGrid(this);
     }
 
-    /* Searches through array of GridCells and returns the total number of flags present */
-    public int countFlags() {
+    /* Returns the seed the mines were placed from */
+    public long getSeed() {
 
-        int flagCount = 0;
+        return seed;
+    }
 
-        for(int i=0; i<cellArray.length; i++) {
+    /* Returns the board holding the state of every cell */
+    public Board getBoard() {
 
-            for(int j=0; j<cellArray[i].length; j++) {
+        return board;
+    }
 
-                //Increment flagCount if cell at given index contains a flag
-                if(cellArray[i][j].containsFlag()) {
+    /* Returns the index of the cell that was clicked on, computed directly from the location
+    of the click, or Board.NO_CELL if the click wasn't contained within any cell */
+    public int getClickedCellAt(double x, double y) {
 
-                    flagCount++;
-                }
-            }
-        }
-        return flagCount;
+        return getCellIndexAt(x, y, 1, 0, 0);
     }
 
-    /* Determines if all present mines have been located or flagged by player */
-    private boolean allMinesLocated() {
+    /* Returns the index of the cell under a point of a view that may be zoomed and scrolled,
+    or Board.NO_CELL if the point is outside of the grid
+    Takes the zoom factor of the view (1 = unscaled) and how far the view is scrolled (in view pixels) */
+    public int getCellIndexAt(double x, double y, double scale, double scrollX, double scrollY) {
 
-        int n = 0;
+        long start = EngineMetrics.start();
+        int index = cellIndexAt(x, y, scale, scrollX, scrollY);
+        EngineMetrics.record(EngineMetrics.CELL_LOOKUP, start);
 
-        for(int i=0; i<cellArray.length; i++) {
+        return index;
+    }
 
-            for(int j=0; j<cellArray[i].length; j++) {
+    /* Works out the cell under a point of the view for getCellIndexAt */
+    private int cellIndexAt(double x, double y, double scale, double scrollX, double scrollY) {
+
+        //Undo the scroll and zoom of the view, then make the point relative to the grid's top left corner
+        double gridX = (x + scrollX) / scale - START_LOC;
+        double gridY = (y + scrollY) / scale - START_LOC;
+
+        //Points above or left of the grid are not in any cell
+        if (gridX < 0 || gridY < 0) return Board.NO_CELL;
+
+        //Every cell is CELL_SIZE wide, so the cell's column and row follow from a single division
+        int col = (int) (gridX / GridCell.CELL_SIZE);
+        int row = (int) (gridY / GridCell.CELL_SIZE);
+
+        //Points below or right of the grid are not in any cell
+        if (col >= board.getSize() || row >= board.getSize()) return Board.NO_CELL;
+
+        return board.indexOf(row, col);
+    }
+
+    /* Randomly places a certain number of mines on the grid
+    (The higher the level of difficulty, the more mines will be present)
+    Mines are chosen from the seed with one random draw per mine, so the same seed, size
+    and number of mines always produce the same grid */
+    private void randomizeMines(int n) {
+
+        long start = EngineMetrics.start();
+
+        //A reset grid draws from the placer it already has
+        if (placer == null)
+            placer = new MinePlacer(seed);
+        else
+            placer.setSeed(seed);
+
+        placer.placeMines(board);
+        EngineMetrics.record(EngineMetrics.RANDOMIZE_MINES, start);
+    }
+
+    /* Evaluates neighbor count and sets all counts for all cells
+    Sets the counts but actual number is hidden (only displayed on a left-click
+    Whole rows are counted at once, and large boards are split into bands counted in parallel */
+    private void setAllNeighborMineCounts() {
+
+        long start = EngineMetrics.start();
+        NeighborCounter.countAll(board);
+        EngineMetrics.record(EngineMetrics.NEIGHBOR_COUNTS, start);
+    }
+
+    /* Sets the counts of a board whose counts are all 0 by adding one around every mine, which looks
+    at each mine rather than at every cell (a level x level grid only holds level mines) and
+    allocates nothing */
+    private void countAroundMines() {
+
+        long start = EngineMetrics.start();
+
+        for (int mine = board.nextMine(0); mine != Board.NO_CELL; mine = board.nextMine(mine + 1))
+            changeNeighborCounts(mine, 1);
+
+        EngineMetrics.record(EngineMetrics.NEIGHBOR_COUNTS, start);
+    }
+
+    /* Returns the total number of flags present (kept up to date by the board) */
+    public int countFlags() {
+
+        return board.getFlagCount();
+    }
+
+    /* Determines if all present mines have been located or flagged by player */
+    boolean allMinesLocated() {
 
-                if(cellArray[i][j].flaggedMine()) {
-                    n++;
-                }
-            }
-        }
         //Number of mines to be flagged depends on level
-        return (n == level);
+        return (board.getFlaggedMineCount() == board.getMineTotal());
     }
 
     /* Determines if all non-mine cells have been uncovered by player */
-    private boolean allCellsUncovered() {
+    boolean allCellsUncovered() {
 
-        int n = 0;
+        //Number of non-mines depends on the
+            //total number of grid cells (level*level) minus the number of mines(aka level)
+        return (board.getRevealedCount() == (board.getCellTotal() - board.getMineTotal()));
 
-        for(int i=0; i<cellArray.length; i++) {
+    }
 
-            for(int j=0; j<cellArray.length; j++) {
+    /* Sets gameWon status once the player has met both conditions for a win */
+    private void checkForWin() {
 
-                if(cellArray[i][j].countRevealed()) {
-                    n++;
-                }
-            }
+        //Ensure that the only way player wins is if all mines are found/flagged
+            //AND if all non-mine cells have been uncovered
+        if (allMinesLocated() && allCellsUncovered()) {
+            gameWon = true;
+            EngineMetrics.gameWon(level);
+            displayAllMines();
         }
+    }
 
-        //Number of non-mines depends on the
-            //total number of grid cells (level*level) minus the number of mines(aka level)
-        return (n == ((level*level)-level));
+    /* Keeps track of and updates the status of the game/grid with a LEFT click on the cell at [row][col]
+    Returns the number of cells revealed, which are the first entries of board.getRevealBatch() */
+    public int handleLeftClick(int row, int col) {
+
+        long start = EngineMetrics.start();
+        int revealedCells = leftClick(row, col);
+        EngineMetrics.record(EngineMetrics.LEFT_CLICK, start);
 
+        return revealedCells;
     }
 
-    /* Keeps track of and updates the status of the game/grid with each LEFT click */
-    public void handleLeftClick(GridCell cell) {
+    /* Makes a left click on the cell at [row][col] (see handleLeftClick) */
+    private int leftClick(int row, int col) {
 
         //Do not process/ignore left clicks if game status = over
             //(aka if user either won or lost)
-        if (gameWon || gameLost) return;
+        if (gameWon || gameLost) return 0;
+
+        int index = board.indexOf(row, col);
+
+        //The first left click decides where the mines go, even on a flagged cell (see withSafeFirstClick)
+        if (firstClickPending)
+            clearStartArea(index);
+
+        //If cell has already been flagged, ignore any normal/left clicks on cell
+        if (board.containsFlag(index)) return 0;
+
+        countStart();
+
+        int revealedCells = 0;
 
-        //Ask cell that was left-clicked on to handle click
-            //Further delegation of left click
-        cell.handleLeftClick();
+        //If a non-mine cell is clicked on, reveal its neighbor count
+            //(and the whole surrounding region if the cell has no neighboring mines)
+        if (!board.containsMine(index)) {
+            revealedCells = board.revealCascade(index);
 
-        //If player had exploded a mine, set gameLost status to true
-        if (cell.isExploded()) {
+            //Repaint the revealed cells as one batch
+            if (view != null)
+                view.repaintCells(board.getRevealBatch(), revealedCells);
+
+            //Revealing the last non-mine cell can win the game too
+            checkForWin();
+        }
+        //Else, player has clicked on a mine, so explode it and set gameLost status to true
+        else {
+            board.explode(index);
             gameLost = true;
+            EngineMetrics.gameLost(level);
+
             //Reveal all the hidden mines
             displayAllMines();
         }
+        return revealedCells;
+    }
+
+    /* Keeps track of and updates the status of the game/grid with a RIGHT click on the cell at [row][col] */
+    public void handleRightClick(int row, int col) {
+
+        long start = EngineMetrics.start();
+        rightClick(row, col);
+        EngineMetrics.record(EngineMetrics.RIGHT_CLICK, start);
     }
-    /* Keeps track of and updates the status of the game/grid with each RIGHT click */
-    public void handleRightClick(GridCell cell) {
+
+    /* Makes a right click on the cell at [row][col] (see handleRightClick) */
+    private void rightClick(int row, int col) {
 
         //Do not process/ignore right clicks if game status = over
             //(aka if user either won or lost)
         if (gameWon || gameLost) return;
 
-        //Ask cell that was right-clicked on to handle click
-        cell.handleRightClick();
+        countStart();
 
-        //Ensure that the only way player wins is if all mines are found/flagged
-            //AND if all non-mine cells have been uncovered
-        if (allMinesLocated() && allCellsUncovered()) {
-            gameWon = true;
-            displayAllMines();
+        int index = board.indexOf(row, col);
+
+        //Place a flag on cell, or remove the flag if player right-clicks again on a flag
+        board.toggleFlag(index);
+
+        if (view != null)
+            view.repaintCell(index);
+
+        checkForWin();
+
+    }
+
+    /* Reveals cells[from] to cells[to - 1] if reveal is true, hides them otherwise, without any of the
+    game rules of a click (to undo or redo a move, see MoveHistory) */
+    void setRevealed(int[] cells, int from, int to, boolean reveal) {
+
+        for (int k = from; k < to; k++) {
+            if (reveal)
+                board.reveal(cells[k]);
+            else
+                board.hide(cells[k]);
         }
 
+        if (view != null)
+            view.repaintCells(cells, from, to);
+
+        updateStatus();
+    }
+
+    /* Places or removes the flag on the cell at index, even once the game is over (to undo or redo
+    a right click) */
+    void toggleFlag(int index) {
+
+        board.toggleFlag(index);
+
+        if (view != null)
+            view.repaintCell(index);
+
+        updateStatus();
+    }
+
+    /* Makes the cell at index the exploded mine, or clears the explosion if index is Board.NO_CELL
+    (to undo or redo a losing click) */
+    void setExploded(int index) {
+
+        board.explode(index);
+        updateStatus();
+    }
+
+    /* Works out whether the game is won or lost from the board after it was changed directly */
+    private void updateStatus() {
+
+        boolean wasOver = isGameOver();
+        boolean wasWon = gameWon;
+        boolean wasLost = gameLost;
+
+        gameLost = (board.getExplodedIndex() != Board.NO_CELL);
+        gameWon = !gameLost && allMinesLocated() && allCellsUncovered();
+
+        //An undone win or loss is taken back out of the metrics, and a redone one counted again
+        if (gameWon != wasWon) {
+            if (gameWon) EngineMetrics.gameWon(level);
+            else EngineMetrics.winUndone(level);
+        }
+        if (gameLost != wasLost) {
+            if (gameLost) EngineMetrics.gameLost(level);
+            else EngineMetrics.lossUndone(level);
+        }
+
+        //Every mine is shown or hidden again when the game ends or goes on
+        if (view != null && wasOver != isGameOver())
+            view.repaintAll();
+    }
+
+    /* Counts the game as started at its first move */
+    private void countStart() {
+
+        if (!started) {
+            started = true;
+            EngineMetrics.gameStarted(level);
+        }
+    }
+
+    /* Puts the game back in a state saved from a grid with the same level and seed (see
+    Board.restoreState): the game is lost if a mine was exploded and won if both win conditions hold */
+    public void restoreState(long[] flagWords, long[] revealedWords, int explodedIndex) {
+
+        board.restoreState(flagWords, revealedWords, explodedIndex);
+
+        //A resumed game was counted as started when it was first played
+        started = true;
+        gameLost = (explodedIndex != Board.NO_CELL);
+        gameWon = !gameLost && allMinesLocated() && allCellsUncovered();
+
+        if (view != null)
+            view.repaintAll();
     }
 
     /* Determines if the game is over */
@@ -310,19 +612,25 @@ public class Grid
         return gameWon || gameLost;
     }
 
-    /* Uncovers all hidden mines */
-    public void displayAllMines() {
+    /* Determines if the player has won */
+    public boolean isGameWon() {
+
+        return gameWon;
+    }
 
-        for(int i=0; i<cellArray.length; i++) {
+    /* Determines if the player has lost (exploded a mine) */
+    public boolean isGameLost() {
 
-            for(int j=0; j<cellArray[i].length; j++) {
+        return gameLost;
+    }
 
-                if(cellArray[i][j].containsMine()) {
+    /* Uncovers all hidden mines (the view paints every mine once the game is over) */
+    public void displayAllMines() {
 
-                    cellArray[i][j].showMine();
-                }
-            }
-        }
+        //A headless grid has no mines to display
+        if (view == null) return;
+
+        view.repaintAll();
     }
 
     /* Displays a message to player regarding either a win or a loss */
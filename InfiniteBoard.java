@@ -0,0 +1,449 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * InfiniteBoard is the model of an endless minesweeper board. The world is split into chunks of
+ * CHUNK_SIZE x CHUNK_SIZE cells addressed by signed (x, y) coords. A chunk's mines are not stored
+ * anywhere: they come from a hash of (seed, chunk x, chunk y), so they are generated the first time
+ * the chunk is touched (or asked about by a view) and can be dropped and generated again at any time.
+ *
+ * Generated chunks (mines, plus neighbor counts once a cell of the chunk is revealed) live in a
+ * cache that drops the least recently used chunk once it holds more than its budget. What the player
+ * did to a chunk (flags and revealed cells) is kept apart, as two small bitsets per touched chunk,
+ * and is never dropped. Counting a chunk's cells only needs the mines of its eight adjacent chunks,
+ * so neither counts nor cascades ever generate anything further away. A cascade in sparse areas
+ * could open up forever, so a reveal opens at most maxCascade cells; the cells still waiting to open
+ * are kept and opened by continueCascade, for example as the view scrolls towards them.
+ *
+ * There is no winning an endless board: the game ends when a mine is revealed.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class InfiniteBoard
+{
+    //Width (and height) of a chunk in cells, and how many bits address a cell within it
+    public static final int CHUNK_SIZE = 32;
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int CHUNK_WORDS = CHUNK_CELLS / 64;
+
+    //The cache always keeps at least the 3 x 3 chunks one count needs
+    private static final int MIN_CACHED_CHUNKS = 9;
+
+    private final long seed;
+    private final int minesPerChunk;
+    private final int maxCascade;
+
+    //Generated chunks, least recently used first; the eldest is dropped once the budget is exceeded
+    private final Map<Long, Chunk> cache;
+
+    //Flags (first CHUNK_WORDS longs) and revealed cells (next CHUNK_WORDS) of every touched chunk
+    private final Map<Long, long[]> touched = new HashMap<Long, long[]>();
+
+    //Last chunk looked up in each map, since consecutive lookups nearly always hit the same chunk
+        //(a dropped chunk may still be used through lastChunk: its mines would be generated the same)
+    private long lastChunkKey;
+    private Chunk lastChunk;
+    private long lastTouchedKey;
+    private long[] lastTouched;
+
+    //Cells revealed but not yet expanded by a capped cascade (x in the high half, y in the low half)
+    private long[] pending = new long[64];
+    private int pendingHead = 0;
+    private int pendingTail = 0;
+
+    private long revealedCount = 0;
+    private long flagCount = 0;
+    private long generatedCount = 0;
+
+    private boolean exploded = false;
+    private int explodedX;
+    private int explodedY;
+
+    /* Constructs an endless board whose chunks each hold minesPerChunk mines placed from seed,
+    caching at most maxCachedChunks generated chunks (about 700 bytes each) and opening at most
+    maxCascade cells per reveal */
+    public InfiniteBoard(long seed, int minesPerChunk, int maxCachedChunks, int maxCascade) {
+
+        if (minesPerChunk < 0 || minesPerChunk > CHUNK_CELLS || maxCascade < 1)
+            throw new IllegalArgumentException("Invalid endless board: " + minesPerChunk + " mines per chunk");
+
+        this.seed = seed;
+        this.minesPerChunk = minesPerChunk;
+        this.maxCascade = maxCascade;
+
+        int budget = Math.max(MIN_CACHED_CHUNKS, maxCachedChunks);
+
+        cache = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                return size() > budget;
+            }
+        };
+    }
+
+    /* Determines if the cell at (x, y) contains a mine */
+    public boolean containsMine(int x, int y) {
+
+        return getBit(chunkAt(x >> CHUNK_BITS, y >> CHUNK_BITS).mines, localIndex(x, y));
+    }
+
+    /* Returns the number of mines surrounding the cell at (x, y) */
+    public int getNeighborMineCount(int x, int y) {
+
+        Chunk chunk = chunkAt(x >> CHUNK_BITS, y >> CHUNK_BITS);
+
+        if (chunk.counts == null)
+            countChunk(chunk);
+
+        int index = localIndex(x, y);
+        return (chunk.counts[index >> 1] >> ((index & 1) * 4)) & 0xF;
+    }
+
+    /* Determines if the cell at (x, y) has been revealed (never generates anything) */
+    public boolean isRevealed(int x, int y) {
+
+        long[] state = touchedAt(x >> CHUNK_BITS, y >> CHUNK_BITS);
+        return state != null && getBit(state, CHUNK_CELLS + localIndex(x, y));
+    }
+
+    /* Determines if a flag has been placed on the cell at (x, y) (never generates anything) */
+    public boolean containsFlag(int x, int y) {
+
+        long[] state = touchedAt(x >> CHUNK_BITS, y >> CHUNK_BITS);
+        return state != null && getBit(state, localIndex(x, y));
+    }
+
+    /* Places a flag on the cell at (x, y) if there is none, otherwise removes the flag
+    (revealed cells can't be flagged) */
+    public void toggleFlag(int x, int y) {
+
+        if (exploded || isRevealed(x, y)) return;
+
+        long[] state = touch(x >> CHUNK_BITS, y >> CHUNK_BITS);
+        int index = localIndex(x, y);
+
+        state[index >> 6] ^= 1L << index;
+        flagCount += getBit(state, index) ? 1 : -1;
+    }
+
+    /* Reveals the cell at (x, y) and, if it has no neighboring mines, the region around it (up to
+    maxCascade cells; see continueCascade). Returns the number of cells revealed, or -1 if the cell
+    held a mine, which ends the game */
+    public int reveal(int x, int y) {
+
+        if (exploded || isRevealed(x, y) || containsFlag(x, y)) return 0;
+
+        if (containsMine(x, y)) {
+            exploded = true;
+            explodedX = x;
+            explodedY = y;
+            return -1;
+        }
+
+        setRevealed(x, y);
+        enqueue(x, y);
+
+        return 1 + continueCascade(maxCascade - 1);
+    }
+
+    /* Opens up to maxCells more cells of the cascades that were cut short by the cap, and returns
+    how many were opened */
+    public int continueCascade(int maxCells) {
+
+        int opened = 0;
+
+        while (pendingHead != pendingTail && opened < maxCells) {
+
+            long cell = pending[pendingHead];
+            int x = (int) (cell >> 32);
+            int y = (int) cell;
+
+            //Only cells with no neighboring mines open up their neighbors
+            if (getNeighborMineCount(x, y) != 0) {
+                pendingHead = (pendingHead + 1) & (pending.length - 1);
+                continue;
+            }
+
+            //Open the neighbors one at a time, so the cap can stop in the middle of a cell
+            boolean done = true;
+
+            for (int dy = -1; dy <= 1 && done; dy++) {
+
+                for (int dx = -1; dx <= 1; dx++) {
+
+                    int nx = x + dx;
+                    int ny = y + dy;
+
+                    //Neighbors of a zero cell hold no mines, but flags are left in place
+                    if (isRevealed(nx, ny) || containsFlag(nx, ny)) continue;
+
+                    if (opened == maxCells) {
+                        done = false;
+                        break;
+                    }
+
+                    setRevealed(nx, ny);
+                    enqueue(nx, ny);
+                    opened++;
+                }
+            }
+
+            if (done)
+                pendingHead = (pendingHead + 1) & (pending.length - 1);
+        }
+        return opened;
+    }
+
+    /* Returns the number of revealed cells whose neighbors a capped cascade has not opened yet */
+    public int getPendingCascade() {
+
+        return (pendingTail - pendingHead) & (pending.length - 1);
+    }
+
+    /* Determines if a mine has been revealed (the game is over) */
+    public boolean isGameLost() {
+
+        return exploded;
+    }
+
+    /* Returns the x coord of the exploded mine (only meaningful once the game is lost) */
+    public int getExplodedX() {
+
+        return explodedX;
+    }
+
+    /* Returns the y coord of the exploded mine (only meaningful once the game is lost) */
+    public int getExplodedY() {
+
+        return explodedY;
+    }
+
+    /* Returns the number of revealed cells */
+    public long getRevealedCount() {
+
+        return revealedCount;
+    }
+
+    /* Returns the number of flags present */
+    public long getFlagCount() {
+
+        return flagCount;
+    }
+
+    /* Returns the number of generated chunks held in the cache */
+    public int getCachedChunkCount() {
+
+        return cache.size();
+    }
+
+    /* Returns the number of chunks the player has flagged or revealed cells in */
+    public int getTouchedChunkCount() {
+
+        return touched.size();
+    }
+
+    /* Returns the number of times a chunk has been generated (again, if it was dropped) */
+    public long getGeneratedCount() {
+
+        return generatedCount;
+    }
+
+    /* Marks the cell at (x, y) as revealed */
+    private void setRevealed(int x, int y) {
+
+        long[] state = touch(x >> CHUNK_BITS, y >> CHUNK_BITS);
+        int index = CHUNK_CELLS + localIndex(x, y);
+
+        state[index >> 6] |= 1L << index;
+        revealedCount++;
+    }
+
+    /* Adds a cell to the queue of cells whose neighbors still have to be opened */
+    private void enqueue(int x, int y) {
+
+        pending[pendingTail] = ((long) x << 32) | (y & 0xFFFFFFFFL);
+        pendingTail = (pendingTail + 1) & (pending.length - 1);
+
+        //Full: double the queue, unrolling it so the waiting cells start at 0
+        if (pendingTail == pendingHead) {
+            long[] grown = new long[pending.length * 2];
+            int firstPart = pending.length - pendingHead;
+
+            System.arraycopy(pending, pendingHead, grown, 0, firstPart);
+            System.arraycopy(pending, 0, grown, firstPart, pendingHead);
+
+            pendingHead = 0;
+            pendingTail = pending.length;
+            pending = grown;
+        }
+    }
+
+    /* Returns the player state of chunk (cx, cy), or null if the player hasn't touched it */
+    private long[] touchedAt(int cx, int cy) {
+
+        long key = chunkKey(cx, cy);
+
+        if (lastTouched != null && key == lastTouchedKey)
+            return lastTouched;
+
+        long[] state = touched.get(key);
+
+        //Player state is never removed, so it can be remembered (untouched chunks can't)
+        if (state != null) {
+            lastTouchedKey = key;
+            lastTouched = state;
+        }
+        return state;
+    }
+
+    /* Returns the player state of chunk (cx, cy), creating it the first time */
+    private long[] touch(int cx, int cy) {
+
+        long[] state = touchedAt(cx, cy);
+
+        if (state == null) {
+            state = new long[2 * CHUNK_WORDS];
+            touched.put(chunkKey(cx, cy), state);
+
+            lastTouchedKey = chunkKey(cx, cy);
+            lastTouched = state;
+        }
+        return state;
+    }
+
+    /* Returns generated chunk (cx, cy), generating its mines if it isn't cached */
+    private Chunk chunkAt(int cx, int cy) {
+
+        long key = chunkKey(cx, cy);
+
+        if (lastChunk != null && key == lastChunkKey)
+            return lastChunk;
+
+        Chunk chunk = cache.get(key);
+
+        if (chunk == null) {
+            chunk = generate(cx, cy);
+            cache.put(key, chunk);
+        }
+
+        lastChunkKey = key;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /* Places the mines of chunk (cx, cy) from the hash of the seed and the chunk's coords */
+    private Chunk generate(int cx, int cy) {
+
+        Chunk chunk = new Chunk(cx, cy);
+
+        //One SplitMix64 step turns (seed, cx, cy) into a well mixed seed for this chunk
+        MinePlacer random = new MinePlacer(new MinePlacer(seed ^ chunkKey(cx, cy)).nextLong());
+
+        //Floyd's algorithm, as in MinePlacer.placeMines
+        for (int j = CHUNK_CELLS - minesPerChunk; j < CHUNK_CELLS; j++) {
+
+            int index = random.nextInt(j + 1);
+
+            if (getBit(chunk.mines, index))
+                index = j;
+
+            chunk.mines[index >> 6] |= 1L << index;
+        }
+
+        generatedCount++;
+        return chunk;
+    }
+
+    /* Computes the neighbor count of every cell of chunk, from its mines and its neighbors' */
+    private void countChunk(Chunk chunk) {
+
+        //Mines of the chunk and the 3 x 3 chunks around it, as a padded grid one cell wider on each side
+        int padded = CHUNK_SIZE + 2;
+        boolean[] mines = new boolean[padded * padded];
+
+        for (int dy = -1; dy <= 1; dy++) {
+
+            for (int dx = -1; dx <= 1; dx++) {
+
+                Chunk neighbor = (dx == 0 && dy == 0) ? chunk : chunkAt(chunk.cx + dx, chunk.cy + dy);
+
+                //Only the edge of a neighbor touching this chunk is needed
+                int fromX = dx < 0 ? CHUNK_SIZE - 1 : 0, toX = dx > 0 ? 0 : CHUNK_SIZE - 1;
+                int fromY = dy < 0 ? CHUNK_SIZE - 1 : 0, toY = dy > 0 ? 0 : CHUNK_SIZE - 1;
+
+                for (int ly = fromY; ly <= toY; ly++) {
+
+                    for (int lx = fromX; lx <= toX; lx++) {
+
+                        int px = 1 + lx + dx * CHUNK_SIZE;
+                        int py = 1 + ly + dy * CHUNK_SIZE;
+
+                        mines[py * padded + px] = getBit(neighbor.mines, ly * CHUNK_SIZE + lx);
+                    }
+                }
+            }
+        }
+
+        byte[] counts = new byte[CHUNK_CELLS / 2];
+
+        for (int ly = 0; ly < CHUNK_SIZE; ly++) {
+
+            for (int lx = 0; lx < CHUNK_SIZE; lx++) {
+
+                int center = (ly + 1) * padded + lx + 1;
+                int count = 0;
+
+                for (int dy = -padded; dy <= padded; dy += padded) {
+                    if (mines[center + dy - 1]) count++;
+                    if (mines[center + dy]) count++;
+                    if (mines[center + dy + 1]) count++;
+                }
+
+                //A mine isn't its own neighbor
+                if (mines[center]) count--;
+
+                int index = ly * CHUNK_SIZE + lx;
+                counts[index >> 1] |= (byte) (count << ((index & 1) * 4));
+            }
+        }
+
+        chunk.counts = counts;
+    }
+
+    /* Combines chunk coords into a single map key */
+    private static long chunkKey(int cx, int cy) {
+
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /* Returns the index of cell (x, y) within its chunk */
+    private static int localIndex(int x, int y) {
+
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+
+    /* Reads the bit of a cell from a packed bitset */
+    private static boolean getBit(long[] bits, int index) {
+
+        return (bits[index >> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * The generated part of a chunk: its mines and, once needed, its neighbor counts (nibble-packed).
+     */
+    private static class Chunk
+    {
+        final int cx;
+        final int cy;
+        final long[] mines = new long[CHUNK_WORDS];
+        byte[] counts;
+
+        Chunk(int cx, int cy) {
+
+            this.cx = cx;
+            this.cy = cy;
+        }
+    }
+}
@@ -0,0 +1,431 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Leaderboard keeps every finished game (level, seed, time, clicks, won or lost) in a local
+ * append-only log of fixed-size records and answers top-N and percentile queries on the times of won
+ * games. No record is kept as an object: for each level, the index holds only the sorted keys of its
+ * won games (the time in milliseconds in the high half of a long, the record's number in the low
+ * half), and a record is only read back from the log when a query returns it. New keys go into a
+ * small sorted run that is merged into the main run once it is full, so a game is added in
+ * microseconds, and every query is a binary search or a short walk over the two runs.
+ *
+ * On startup the index is rebuilt by reading the log sequentially in large blocks, then sorting each
+ * level's keys once, so millions of records load in well under a second. A record cut short at the
+ * end of the log (by a crash mid-write) is ignored and overwritten by the next record.
+ *
+ * File layout (big-endian): "MSLB", int version, then records of RECORD_BYTES bytes:
+ *   int level, long seed, long elapsed nanoseconds, int clicks, int won (1 or 0)
+ *
+ * Usage: java Leaderboard log-file [level] [n]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class Leaderboard implements Closeable
+{
+    private static final int MAGIC = ('M' << 24) | ('S' << 16) | ('L' << 8) | 'B';
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 28;
+
+    //Size of the blocks the log is scanned in on startup
+    private static final int SCAN_BYTES = 1 << 20;
+
+    //Number of keys the small sorted run holds before it is merged into the main run
+    private static final int RECENT_CAPACITY = 4096;
+
+    private final FileChannel log;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BYTES);
+
+    //Number of complete records in the log
+    private long recordCount;
+
+    private final Map<Integer, LevelIndex> levels = new HashMap<Integer, LevelIndex>();
+
+    /* Opens (or creates) the log in file and rebuilds the index from it */
+    public Leaderboard(Path file) throws IOException {
+
+        log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (log.size() == 0)
+                writeHeader();
+            else
+                rebuild();
+        }
+        catch (IOException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    /* Appends a finished game to the log and adds it to the index */
+    public synchronized void record(int level, long seed, long elapsedNanos, int clicks, boolean won) throws IOException {
+
+        recordBuffer.clear();
+        recordBuffer.putInt(level).putLong(seed).putLong(elapsedNanos).putInt(clicks).putInt(won ? 1 : 0);
+        recordBuffer.flip();
+
+        long position = HEADER_BYTES + recordCount * RECORD_BYTES;
+
+        while (recordBuffer.hasRemaining())
+            position += log.write(recordBuffer, position);
+
+        add(recordCount++, level, elapsedNanos, won);
+    }
+
+    /* Returns the number of games played at level */
+    public synchronized long getPlayed(int level) {
+
+        LevelIndex index = levels.get(level);
+        return index == null ? 0 : index.played;
+    }
+
+    /* Returns the number of games won at level */
+    public synchronized long getWon(int level) {
+
+        LevelIndex index = levels.get(level);
+        return index == null ? 0 : index.size();
+    }
+
+    /* Returns the n fastest won games at level, fastest first */
+    public synchronized List<Entry> top(int level, int n) throws IOException {
+
+        List<Entry> entries = new ArrayList<Entry>();
+        LevelIndex index = levels.get(level);
+
+        if (index == null) return entries;
+
+        //Walk the two sorted runs together, like the merge step of a merge sort
+        int i = 0, j = 0;
+
+        while (entries.size() < n && (i < index.mainCount || j < index.recentCount)) {
+
+            long key;
+
+            if (j == index.recentCount || (i < index.mainCount && index.main[i] < index.recent[j]))
+                key = index.main[i++];
+            else
+                key = index.recent[j++];
+
+            entries.add(readEntry(recordNumber(key)));
+        }
+        return entries;
+    }
+
+    /* Returns the percentage (0 to 100) of won games at level that were faster than elapsedNanos */
+    public synchronized double percentFasterThan(int level, long elapsedNanos) {
+
+        LevelIndex index = levels.get(level);
+
+        if (index == null || index.size() == 0) return 0;
+
+        //Smallest possible key of this time: everything below it is faster
+        long key = key(elapsedNanos, 0);
+
+        long faster = insertionPoint(index.main, index.mainCount, key)
+            + insertionPoint(index.recent, index.recentCount, key);
+
+        return 100.0 * faster / index.size();
+    }
+
+    /* Returns the time in milliseconds that percent (0 to 100) of the won games at level beat or
+    matched, for example 50 for the median time, or -1 if no game was won at level */
+    public synchronized long timeAtPercentile(int level, double percent) {
+
+        LevelIndex index = levels.get(level);
+
+        if (index == null || index.size() == 0) return -1;
+
+        int k = (int) Math.min(index.size() - 1, Math.max(0, Math.ceil(index.size() * percent / 100) - 1));
+
+        return index.kth(k) >>> 32;
+    }
+
+    /* Closes the log */
+    public synchronized void close() throws IOException {
+
+        log.close();
+    }
+
+    /* Adds record number record to the index */
+    private void add(long record, int level, long elapsedNanos, boolean won) {
+
+        LevelIndex index = levels.get(level);
+
+        if (index == null) {
+            index = new LevelIndex();
+            levels.put(level, index);
+        }
+
+        index.played++;
+
+        if (won)
+            index.add(key(elapsedNanos, record));
+    }
+
+    /* Writes the header of an empty log */
+    private void writeHeader() throws IOException {
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+
+        while (header.hasRemaining())
+            log.write(header, header.position());
+
+        recordCount = 0;
+    }
+
+    /* Scans the whole log in large blocks and rebuilds the index from it */
+    private void rebuild() throws IOException {
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && log.read(header, header.position()) > 0);
+        header.flip();
+
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+            throw new IOException("Not a leaderboard log");
+
+        int version = header.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported leaderboard version " + version);
+
+        //Only complete records count; a partial last record is overwritten by the next one
+        recordCount = (log.size() - HEADER_BYTES) / RECORD_BYTES;
+
+        ByteBuffer block = ByteBuffer.allocateDirect(SCAN_BYTES / RECORD_BYTES * RECORD_BYTES);
+        long position = HEADER_BYTES;
+        long end = HEADER_BYTES + recordCount * RECORD_BYTES;
+        long record = 0;
+
+        while (position < end) {
+
+            block.clear();
+            block.limit((int) Math.min(block.capacity(), end - position));
+
+            while (block.hasRemaining()) {
+                int read = log.read(block, position + block.position());
+                if (read < 0) throw new IOException("Leaderboard log ended early");
+            }
+
+            block.flip();
+            position += block.limit();
+
+            while (block.hasRemaining()) {
+                int level = block.getInt();
+                block.getLong();
+                long elapsedNanos = block.getLong();
+                block.getInt();
+                boolean won = block.getInt() != 0;
+
+                //Keys are gathered unsorted and sorted once at the end
+                LevelIndex index = levels.get(level);
+                if (index == null) {
+                    index = new LevelIndex();
+                    levels.put(level, index);
+                }
+
+                index.played++;
+                if (won)
+                    index.appendUnsorted(key(elapsedNanos, record));
+
+                record++;
+            }
+        }
+
+        for (LevelIndex index : levels.values())
+            index.sortMain();
+    }
+
+    /* Reads record number record back from the log */
+    private Entry readEntry(long record) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+        long position = HEADER_BYTES + record * RECORD_BYTES;
+
+        while (buffer.hasRemaining()) {
+            int read = log.read(buffer, position);
+
+            //The log ends before the record the index points at (an append cut short)
+            if (read < 0)
+                throw new EOFException("Leaderboard log ends inside record " + record);
+
+            position += read;
+        }
+
+        buffer.flip();
+
+        return new Entry(buffer.getInt(), buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt() != 0);
+    }
+
+    /* Returns the index key of a won game: its time in milliseconds (capped so it fits) in the high
+    half, its record number in the low half, so keys sort by time and then by age */
+    private static long key(long elapsedNanos, long record) {
+
+        long millis = Math.min(Integer.MAX_VALUE, Math.max(0, elapsedNanos / 1000000));
+        return (millis << 32) | (record & 0xFFFFFFFFL);
+    }
+
+    /* Returns the record number of a key */
+    private static long recordNumber(long key) {
+
+        return key & 0xFFFFFFFFL;
+    }
+
+    /* Returns the number of the first count keys of sorted that are smaller than key */
+    private static int insertionPoint(long[] sorted, int count, long key) {
+
+        int position = Arrays.binarySearch(sorted, 0, count, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * The keys of the won games of one level, as a large sorted main run and a small sorted run of
+     * the latest games.
+     */
+    private static class LevelIndex
+    {
+        long[] main = new long[16];
+        int mainCount = 0;
+
+        final long[] recent = new long[RECENT_CAPACITY];
+        int recentCount = 0;
+
+        long played = 0;
+
+        int size() {
+
+            return mainCount + recentCount;
+        }
+
+        /* Adds key while loading, before sortMain */
+        void appendUnsorted(long key) {
+
+            if (mainCount == main.length)
+                main = Arrays.copyOf(main, main.length * 2);
+
+            main[mainCount++] = key;
+        }
+
+        void sortMain() {
+
+            Arrays.sort(main, 0, mainCount);
+        }
+
+        /* Inserts key into the recent run, merging the run into the main run when it is full */
+        void add(long key) {
+
+            if (recentCount == RECENT_CAPACITY)
+                mergeRecent();
+
+            int position = insertionPoint(recent, recentCount, key);
+
+            System.arraycopy(recent, position, recent, position + 1, recentCount - position);
+            recent[position] = key;
+            recentCount++;
+        }
+
+        /* Merges the recent run into the main run, from the back so no extra array is needed */
+        void mergeRecent() {
+
+            if (mainCount + recentCount > main.length)
+                main = Arrays.copyOf(main, Math.max(main.length * 2, mainCount + recentCount));
+
+            int i = mainCount - 1, j = recentCount - 1, k = mainCount + recentCount - 1;
+
+            while (j >= 0) {
+                if (i >= 0 && main[i] > recent[j])
+                    main[k--] = main[i--];
+                else
+                    main[k--] = recent[j--];
+            }
+
+            mainCount += recentCount;
+            recentCount = 0;
+        }
+
+        /* Returns the k-th smallest key (from 0) of the two runs together, by a binary search on how
+        many of the smallest k + 1 keys come from the main run */
+        long kth(int k) {
+
+            int lo = Math.max(0, k + 1 - recentCount);
+            int hi = Math.min(mainCount, k + 1);
+
+            while (lo < hi) {
+
+                int i = (lo + hi) >>> 1;
+                int j = k + 1 - i;
+
+                //Taking i keys from main leaves a recent key larger than the next main key: take more from main
+                if (j > 0 && i < mainCount && recent[j - 1] > main[i])
+                    lo = i + 1;
+                else
+                    hi = i;
+            }
+
+            int i = lo;
+            int j = k + 1 - i;
+
+            return Math.max(i > 0 ? main[i - 1] : Long.MIN_VALUE, j > 0 ? recent[j - 1] : Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * One finished game, as read back from the log.
+     */
+    public static class Entry
+    {
+        public final int level;
+        public final long seed;
+        public final long elapsedNanos;
+        public final int clicks;
+        public final boolean won;
+
+        Entry(int level, long seed, long elapsedNanos, int clicks, boolean won) {
+
+            this.level = level;
+            this.seed = seed;
+            this.elapsedNanos = elapsedNanos;
+            this.clicks = clicks;
+            this.won = won;
+        }
+
+        public String toString() {
+
+            return String.format("%.3f s, %d clicks, seed %d", elapsedNanos / 1e9, clicks, seed);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        long start = System.nanoTime();
+        Leaderboard board = new Leaderboard(Paths.get(args[0]));
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+
+        int level = args.length > 1 ? Integer.parseInt(args[1]) : Grid.EASY_LEVEL;
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        System.out.printf("Loaded %,d records in %.1f ms%n", board.recordCount, loadMillis);
+        System.out.printf("Level %d: %,d played, %,d won, median %d ms, p90 %d ms%n", level,
+            board.getPlayed(level), board.getWon(level),
+            board.timeAtPercentile(level, 50), board.timeAtPercentile(level, 90));
+
+        List<Entry> top = board.top(level, n);
+        for (int k = 0; k < top.size(); k++)
+            System.out.println((k + 1) + ". " + top.get(k));
+
+        board.close();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * MinePlacer places the mines of a Board from a 64-bit seed. The same seed, board size and number of
+ * mines always produce the same board, so any game can be replayed or used as a regression test.
+ * Mines are chosen with Floyd's sampling algorithm, which draws exactly one random number per mine
+ * at any mine density (even a board that is almost all mines), instead of retrying on cells that
+ * already hold a mine.
+ *
+ * The random numbers come from SplitMix64, written out here rather than taken from java.util so the
+ * boards generated from a seed can never change with the JDK.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class MinePlacer
+{
+    //Constants of the SplitMix64 generator
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+
+    //Current state of the generator
+    private long state;
+
+    public MinePlacer(long seed) {
+
+        this.state = seed;
+    }
+
+    /* Starts the stream over from seed, as if the placer had just been constructed with it */
+    public void setSeed(long seed) {
+
+        this.state = seed;
+    }
+
+    /* Places board.getMineTotal() mines on a board that has no mines yet */
+    public void placeMines(Board board) {
+
+        int cellTotal = board.getCellTotal();
+
+        //Floyd's algorithm: for each of the last k cell indexes j, pick a random cell among the
+            //first j+1; if that cell already holds a mine, cell j (which cannot hold one yet) gets it
+        for (int j = cellTotal - board.getMineTotal(); j < cellTotal; j++) {
+
+            int index = nextInt(j + 1);
+
+            if (board.containsMine(index))
+                board.placeMine(j);
+            else
+                board.placeMine(index);
+        }
+    }
+
+    /* Returns a random int from 0 (inclusive) to bound (exclusive) using a single draw */
+    public int nextInt(int bound) {
+
+        //Scale 63 random bits onto [0, bound) with a multiplication instead of a modulo
+            //(the bias of at most bound / 2^63 is far too small to ever show up)
+        long random = nextLong() >>> 1;
+        long high = Math.multiplyHigh(random, bound);
+        long low = random * bound;
+
+        return (int) ((high << 1) | (low >>> 63));
+    }
+
+    /* Returns the next 64 random bits of SplitMix64 */
+    public long nextLong() {
+
+        state += GOLDEN_GAMMA;
+
+        long z = state;
+        z = (z ^ (z >>> 30)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> 27)) * MIX_MULTIPLIER_2;
+
+        return z ^ (z >>> 31);
+    }
+}
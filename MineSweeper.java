@@ -6,6 +6,12 @@ import java.awt.event.MouseListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.Box;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The main responsibliity of Class MineSweeper is to define event handlers. This includes,
@@ -22,22 +28,70 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
     //All the swing components needed for game display
     private JButton newGame;
     private JButton cheat;
+    private JButton saveGame;
+    private JButton resumeGame;
+    private JButton undo;
+    private JButton redo;
     private JComboBox pickLevel;
+    private JCheckBox noGuess;
     private JLabel minesFound;
     private JLabel timerLabel;
 
-    private Grid grid;
-    private Timer timer;
+    //Only changed on the game thread (see gameLoop)
+    private volatile Grid grid;
+    private volatile Timer timer;
+
+    //Single component the board is painted on (takes the place of the objectdraw canvas)
+    private BoardView boardView;
+
+    //Keeps grids of each level ready in the background so a new game starts instantly
+    private static final int POOL_CAPACITY = 4;
+    private BoardPool boardPool = new BoardPool(POOL_CAPACITY);
+
+    //Runs every click and new game on one game thread, and refreshes the display once per frame
+    private GameLoop gameLoop;
+
+    //Records the current game into the replay folder (null if it can't be recorded)
+        //The folder can be changed with -Dminesweeper.replays=<folder>
+    private static final String REPLAY_FOLDER = System.getProperty("minesweeper.replays", "replays");
+    private MoveLog moveLog;
+
+    //File the Save button saves the current game to and the Resume button loads it from
+        //It can be changed with -Dminesweeper.save=<file>
+    private static final Path SAVE_FILE = Paths.get(System.getProperty("minesweeper.save", "minesweeper.save"));
+
+    //Every finished game is added to the leaderboard (null if its file can't be opened)
+        //The file can be changed with -Dminesweeper.leaderboard=<file>
+    private static final Path LEADERBOARD_FILE = Paths.get(System.getProperty("minesweeper.leaderboard", "leaderboard.log"));
+    private Leaderboard leaderboard;
+
+    //Mine probabilities of the current grid shown by the Hint button (null when hints are off)
+        //Only used on the game thread
+    private ProbabilityEngine hints;
+
+    //Every move of the current game, to undo and redo (only used on the game thread)
+        //A game with a move undone is practice: its log stops and it isn't added to the leaderboard
+    private MoveHistory history;
+    private boolean practice = false;
+
+    //Seeds of the games restarted on the same grid (see restartGame)
+    private final Random seeds = new Random();
+
+    //Level of a game resumed on the game thread, waiting for the next frame to show it (0 if none)
+    private final AtomicInteger resumedLevel = new AtomicInteger();
+
+    //Set while the level menu is changed to match a resumed game (so it doesn't start a new game)
+    private boolean updatingLevelMenu = false;
 
     //To hold information about various levels of difficulty
-    private static final int EASY_LEVEL = 10;
-    private static final int MEDIUM_LEVEL = 15;
-    private static final int HARD_LEVEL = 20;
+    private static final int EASY_LEVEL = Grid.EASY_LEVEL;
+    private static final int MEDIUM_LEVEL = Grid.MEDIUM_LEVEL;
+    private static final int HARD_LEVEL = Grid.HARD_LEVEL;
+    private static final int HUGE_LEVEL = Grid.HUGE_LEVEL;
     private int level = EASY_LEVEL;
 
     private static final int WINDOW_WIDTH = 640;
     private static final int WINDOW_HEIGHT = 790;
-    private static final int MSG_FONT_SIZE = 25;
 
     /* Sets up the game display (via resizing, addition of swing components and grid construction) */
     public void begin() {
@@ -47,10 +101,26 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
 
         setSwingComponents();
 
+        //Paint the board on a single custom component instead of objectdraw shapes on the canvas
+        boardView = new BoardView();
+        remove((Component) canvas);
+        add(boardView, BorderLayout.CENTER);
+        validate();
+
+        gameLoop = new GameLoop(this::refreshDisplay, this::gameFailed);
+
+        //Load the leaderboard on the game thread, so a long log doesn't hold up the window
+        gameLoop.submit(this::openLeaderboard);
+
+        //Have grids of every level ready before the player picks one
+        boardPool.prepare(EASY_LEVEL, false);
+        boardPool.prepare(MEDIUM_LEVEL, false);
+        boardPool.prepare(HARD_LEVEL, false);
+
         newGame();
 
         //Start listening to mouse events
-        canvas.addMouseListener(this);
+        boardView.addMouseListener(this);
     }
 
     /* Sets up and formats all swing components for game display: JLabels, JComboBox and JButton */
@@ -78,7 +148,22 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
         pickLevel.addItem("Easy");
         pickLevel.addItem("Medium");
         pickLevel.addItem("Hard");
+        pickLevel.addItem("Huge");
+
+
+        //Option to only play grids that can be won by logic alone
+        noGuess = new JCheckBox("No guessing");
+
+        //Save the game in progress to a file and resume it later
+        saveGame = new JButton("Save");
+        resumeGame = new JButton("Resume");
+
+        //Shade every hidden cell by its chance of holding a mine (click again to hide)
+        cheat = new JButton("Hint");
 
+        //Take back moves and make them again, as far back as the start of the game
+        undo = new JButton("Undo");
+        redo = new JButton("Redo");
 
         timerLabel = new JLabel("Elapsed Time: 00:00");
 
@@ -92,6 +177,12 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
         subPanel.add(newGame);
         subPanel.add(timerLabel);
         subPanel.add(pickLevel);
+        subPanel.add(noGuess);
+        subPanel.add(saveGame);
+        subPanel.add(resumeGame);
+        subPanel.add(cheat);
+        subPanel.add(undo);
+        subPanel.add(redo);
 
 
         //Add the main panel to bottom of window
@@ -101,42 +192,125 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
         //Pass running instance of the MineSweeper class
         newGame.addActionListener(this);
         pickLevel.addActionListener(this);
+        noGuess.addActionListener(this);
+        saveGame.addActionListener(this);
+        resumeGame.addActionListener(this);
+        cheat.addActionListener(this);
+        undo.addActionListener(this);
+        redo.addActionListener(this);
     }
 
-    /* Handles left and right mouse clicks */
+    /* Handles left and right mouse clicks by passing them to the game thread */
     public void mousePressed(MouseEvent event) {
 
-        //Get the location of the mouse event
-        Location point = new Location (event.getX(), event.getY());
+        //The middle button pans the board view
+        if (event.getButton() == MouseEvent.BUTTON2) return;
+
+        int x = event.getX();
+        int y = event.getY();
+        boolean leftClick = event.getButton() == MouseEvent.BUTTON1;
+
+        //Where the view was zoomed and scrolled to when the click was made
+        double scale = boardView.getScale();
+        double scrollX = boardView.getScrollX();
+        double scrollY = boardView.getScrollY();
+
+        gameLoop.submit(() -> handleClick(x, y, scale, scrollX, scrollY, leftClick));
+    }
+
+    /* Plays a left or right click at (x, y) of the board view, zoomed by scale and scrolled to
+    (scrollX, scrollY), on the current grid (runs on the game thread) */
+    private void handleClick(int x, int y, double scale, double scrollX, double scrollY, boolean leftClick) {
 
         //Get the grid cell that was clicked (by passing in the location of the event)
-        GridCell clickedCell = grid.getClickedCellAt(point);
+        int clickedCell = grid.getCellIndexAt(x, y, scale, scrollX, scrollY);
 
         //If something other than a grid cell was clicked on, ignore click (exit method)
-        if (clickedCell == null)
+        if (clickedCell == Board.NO_CELL)
             return;
 
+        //Clicks on a finished board change nothing, so they aren't counted or logged
+        boolean wasOver = grid.isGameOver();
+        if (wasOver)
+            return;
+
+        //Record when the move was made
+        long moveTime = timer.markMove();
+
+        int row = grid.getBoard().rowOf(clickedCell);
+        int col = grid.getBoard().colOf(clickedCell);
+
         //If mouse event is a normal left click, pass clicked cell to grid
             //The grid class will then process this left click and act accordingly
-        if (event.getButton() == MouseEvent.BUTTON1) {
-            grid.handleLeftClick(clickedCell);
+        if (leftClick) {
+            int revealedCells = history.leftClick(row, col);
+
+            //Only the hint components next to the revealed cells are worked out again,
+                //but every hidden cell's probability may change
+            if (hints != null && revealedCells > 0 && !grid.isGameOver()) {
+                hints.update(grid.getBoard().getRevealBatch(), revealedCells);
+                boardView.repaintHints();
+            }
         }
         //Else (mouse event is a right click) pass clicked cell to grid
             //The grid class will then process this right click and act accordingly
         else {
-            grid.handleRightClick(clickedCell);
-
-            //Update the Mines found label since a right click on a cell means
-                //that a mine has been found (mine flagged)
-            updateMinesFoundCount();
+            //The Mines found label is updated on the next frame (see refreshDisplay)
+            history.rightClick(row, col);
         }
+
+        //Add the move to the game's log (written to disk behind the game)
+        if (moveLog != null)
+            moveLog.recordMove(clickedCell, !leftClick, moveTime);
+
         //With each mouse event, ask grid for a potential game status
            //(won or lost) to display message
         displayMessage(grid.getStatusMessage());
 
-        //If game is over, stop timer
-        if (grid.isGameOver())
+        //If this click ended the game, stop timer, finish the log and add the game to the leaderboard
+        if (!wasOver && grid.isGameOver()) {
+            timer.gameIsOver();
+            stopRecording();
+            recordResult();
+        }
+    }
+
+    /* Opens the leaderboard (runs on the game thread) */
+    private void openLeaderboard() {
+
+        try {
+            leaderboard = new Leaderboard(LEADERBOARD_FILE);
+        }
+        catch (IOException e) {
+            System.err.println("Leaderboard unavailable: " + e);
+        }
+    }
+
+    /* Adds the game that just ended to the leaderboard (runs on the game thread) */
+    private void recordResult() {
+
+        if (leaderboard == null || practice) return;
+
+        try {
+            leaderboard.record(grid.getBoard().getSize(), grid.getSeed(), timer.getElapsedNanos(),
+                timer.getMoveCount(), grid.isGameWon());
+        }
+        catch (IOException e) {
+            System.err.println("Could not add the game to the leaderboard: " + e);
+        }
+    }
+
+    /* Stops the game after a command failed on the game thread, leaving the board as far as it got
+    (called on the Swing event thread, once) */
+    private void gameFailed(RuntimeException e) {
+
+        //The game thread has already died with e, which printed its stack trace
+        if (timer != null)
             timer.gameIsOver();
+        stopRecording();
+
+        boardView.setMessage("Game stopped after an error", Color.RED);
+        refreshDisplay();
     }
 
     /* Displays a game status message to user depending on string passed in */
@@ -145,22 +319,13 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
         //If there's no message to be displayed, exit method
         if (message == null) return;
 
-        Text msg = new Text(message, 0, 630, canvas);
-
-        //Format the text (bigger and bolder)
-        msg.setFontSize(MSG_FONT_SIZE);
-        msg.setBold(true);
-
-        //Dynamically center message within canvas
-        msg.moveTo(((canvas.getWidth()/2) - (msg.getWidth()/2)), 630);
-
         //Set message to red if player loses
         if(message == "Mine exploded! You lost!") {
-            msg.setColor(Color.RED);
+            boardView.setMessage(message, Color.RED);
         }
         //Or set to green if player wins
         else
-            msg.setColor(Color.GREEN);
+            boardView.setMessage(message, Color.GREEN);
 
     }
 
@@ -170,10 +335,25 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
 
         //Change numerator to the number of flags present on screen
             //Change denominator to total number of mines present on grid (determined by level)
-        minesFound.setText("Mines found: " + grid.countFlags() + " /" + level);
+        minesFound.setText("Mines found: " + grid.countFlags() + " /" + grid.getBoard().getMineTotal());
     }
 
-    /* Updates timer label based on string passed in */
+    /* Applies the changes of every command run since the last frame to the display
+    (runs on the event thread, at most once per frame) */
+    private void refreshDisplay() {
+
+        updateMinesFoundCount();
+
+        //New games continue at the level of a game resumed since the last frame
+        int resumed = resumedLevel.getAndSet(0);
+        if (resumed != 0)
+            showResumedLevel(resumed);
+
+        //Repaint every cell changed since the last frame with a single repaint
+        boardView.flushRepaint(gameLoop.takeOldestInputNanos());
+    }
+
+    /* Updates timer label based on string passed in (called on the Swing event thread) */
     public void updateElapsedTime(String elapsedTimeString) {
 
         timerLabel.setText("Elapsed Time: " + elapsedTimeString);
@@ -188,6 +368,11 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
             newGame();
         }
 
+        //The level menu was only changed to show the level of a resumed game
+        else if(e.getSource() == pickLevel && updatingLevelMenu) {
+            return;
+        }
+
         //If user interacts with the level menu...
         else if(e.getSource() == pickLevel) {
 
@@ -209,21 +394,204 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
                 level = HARD_LEVEL;
                 newGame();
             }
+            //Or if user selects huge, play a board far bigger than the window (zoom and scroll to see it)
+            else if(pickLevel.getSelectedItem().toString() == "Huge") {
+                level = HUGE_LEVEL;
+                newGame();
+            }
+
+        }
+
+        //Switching no guessing on or off also starts a new game
+        else if(e.getSource() == noGuess) {
+            newGame();
+        }
+
+        //Save on the game thread, so the saved game is never caught halfway through a move
+        else if(e.getSource() == saveGame) {
+            gameLoop.submit(this::saveGame);
+        }
+
+        //Load on the game thread too, so reading the file never holds up the window
+        else if(e.getSource() == resumeGame) {
+            gameLoop.submit(this::resumeGame);
+        }
+
+        else if(e.getSource() == cheat) {
+            gameLoop.submit(this::toggleHints);
+        }
 
+        else if(e.getSource() == undo) {
+            gameLoop.submit(() -> stepHistory(false));
         }
+
+        else if(e.getSource() == redo) {
+            gameLoop.submit(() -> stepHistory(true));
+        }
+    }
+
+    /* Shows or hides the mine probabilities of the current grid (runs on the game thread) */
+    private void toggleHints() {
+
+        hints = (hints == null) ? new ProbabilityEngine(grid.getBoard()) : null;
+        boardView.setHints(hints);
+    }
+
+    /* Redoes (forward true) or undoes the last move of the current game (runs on the game thread) */
+    private void stepHistory(boolean forward) {
+
+        boolean wasOver = grid.isGameOver();
+
+        if (!(forward ? history.redo() : history.undo())) return;
+
+        //The replay format has no undo, so the log stops at the first one
+        if (!forward && !practice) {
+            practice = true;
+            stopRecording();
+        }
+
+        if (hints != null) {
+            hints.update(history.getChangedCells(), history.getLastFrom(), history.getLastTo());
+            boardView.repaintHints();
+        }
+
+        //Taking back the last move of a finished game lets it go on, with the clock running again
+        if (wasOver && !grid.isGameOver()) {
+            startClock(timer.getElapsedNanos());
+            boardView.setMessage(null, null);
+        }
+        else if (!wasOver && grid.isGameOver()) {
+            timer.gameIsOver();
+            displayMessage(grid.getStatusMessage());
+        }
+    }
+
+    /* Saves the current game and its time to the save file (runs on the game thread) */
+    private void saveGame() {
+
+        try {
+            SaveFile.save(grid, timer.getElapsedNanos(), SAVE_FILE);
+        }
+        catch (IOException e) {
+            System.err.println("Could not save the game: " + e);
+            boardView.setMessage("Could not save the game", Color.RED);
+        }
+    }
+
+    /* Replaces the current game with the game in the save file (runs on the game thread) */
+    private void resumeGame() {
+
+        SaveFile saved;
+
+        try {
+            saved = SaveFile.load(SAVE_FILE);
+        }
+        catch (IOException e) {
+            System.err.println("Could not resume the saved game: " + e);
+            boardView.setMessage("No saved game to resume", Color.RED);
+            return;
+        }
+
+        startGame(saved.getGrid(), saved.getElapsedNanos());
+
+        //The level menu is changed on the next frame
+        resumedLevel.set(grid.getBoard().getSize());
+
+        //A saved game may already be over
+        displayMessage(grid.getStatusMessage());
+        if (grid.isGameOver()) {
+            timer.gameIsOver();
+            stopRecording();
+        }
+    }
+
+    /* Shows the level of a resumed game in the level menu, so new games continue at it
+    (called on the Swing event thread) */
+    private void showResumedLevel(int resumed) {
+
+        level = resumed;
+
+        updatingLevelMenu = true;
+        if (level == EASY_LEVEL) pickLevel.setSelectedItem("Easy");
+        else if (level == MEDIUM_LEVEL) pickLevel.setSelectedItem("Medium");
+        else if (level == HARD_LEVEL) pickLevel.setSelectedItem("Hard");
+        else if (level == HUGE_LEVEL) pickLevel.setSelectedItem("Huge");
+        updatingLevelMenu = false;
     }
 
     /* Performs all acts needed for a new game/reset */
     private void newGame() {
 
-        //Wipe everything off the canvas
-        canvas.clear();
+        int newLevel = level;
+        boolean noGuessGame = noGuess.isSelected();
 
-        //Construct a fresh grid object
-        grid = new Grid(canvas, level);
+        //Switch on the game thread, after any click still waiting for the old grid
+            //(the Mines found label is set on the next frame)
+        gameLoop.submit(() -> {
 
-        //Set Mines Found: __/__ based on the level passed in
-        updateMinesFoundCount();
+            //Another game at the same level is played on the same grid, reset in place
+                //(no-guess grids come from the pool, which searched for their seeds)
+            if (grid != null && !noGuessGame && grid.getBoard().getSize() == newLevel)
+                restartGame();
+
+            //Otherwise take a fresh grid object that the pool prepared in the background
+            else
+                startGame(boardPool.take(newLevel, noGuessGame));
+        });
+    }
+
+    /* Starts a new game on the current grid, reusing its board, its history and the hint engine
+    rather than building them again (runs on the game thread) */
+    private void restartGame() {
+
+        //The log of the last game is finished before its grid changes
+        stopRecording();
+
+        grid.resetWithSafeFirstClick(seeds.nextLong());
+
+        history.clear();
+        practice = false;
+
+        if (hints != null) {
+            hints.rebuild();
+            boardView.repaintHints();
+        }
+
+        startClock(0);
+
+        startRecording();
+    }
+
+    /* Makes newGrid the current grid, draws it and restarts the clock (runs on the game thread) */
+    private void startGame(Grid newGrid) {
+
+        startGame(newGrid, 0);
+    }
+
+    /* Makes newGrid the current grid, draws it and restarts the clock from elapsedNanos
+    (runs on the game thread) */
+    private void startGame(Grid newGrid, long elapsedNanos) {
+
+        //Draw the new grid (this replaces the previous grid and its message on the board view)
+        grid = newGrid;
+        grid.showOn(boardView);
+
+        history = new MoveHistory(grid);
+        practice = false;
+
+        //Hints stay on from one game to the next
+        if (hints != null) {
+            hints = new ProbabilityEngine(grid.getBoard());
+            boardView.setHints(hints);
+        }
+
+        startClock(elapsedNanos);
+
+        startRecording();
+    }
+
+    /* Replaces the timer with a new one started from elapsedNanos (runs on the game thread) */
+    private void startClock(long elapsedNanos) {
 
         //If a timer object already exists, stop existing timer before creating a new one
         if (timer != null) {
@@ -233,11 +601,36 @@ public class MineSweeper extends WindowController implements ActionListener, Mou
         //Pass timer object a reference to MineSweeper class
             //so it can keep updating timer label
         timer = new Timer(this);
+        timer.setElapsedNanos(elapsedNanos);
 
         //Start the clock
         timer.start();
     }
 
+    /* Starts a move log for the current game, finishing the log of the previous game */
+    private void startRecording() {
+
+        stopRecording();
+
+        try {
+            Path folder = Files.createDirectories(Paths.get(REPLAY_FOLDER));
+            moveLog = MoveLog.create(folder.resolve("game-" + System.currentTimeMillis() + ".mslog"), grid);
+        }
+        catch (IOException e) {
+            //Recording is optional: play on without it
+            System.err.println("Game will not be recorded: " + e);
+        }
+    }
+
+    /* Finishes the log of the current game, if it is being recorded */
+    private void stopRecording() {
+
+        if (moveLog != null) {
+            moveLog.close();
+            moveLog = null;
+        }
+    }
+
     public void mouseClicked(MouseEvent event) {}
 
     public void mouseReleased(MouseEvent event) {}
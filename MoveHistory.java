@@ -0,0 +1,214 @@
+import java.util.Arrays;
+/**
+ * MoveHistory gives a Grid unlimited undo and redo. Rather than keeping a copy of the board for every
+ * move, it keeps only what each move changed: the cells a left click revealed (its whole cascade), the
+ * cell a right click flagged or unflagged, or the mine a losing click exploded. Everything the moves
+ * have in common stays in the one Board they share. The changed cells of all moves are stored back to
+ * back in a single int array, so a move costs 4 bytes per cell it changed and a few bytes more, and
+ * undoing or redoing it touches only those cells. Even a history that opens every cell of a 1000 x 1000
+ * board takes about 4 MB.
+ *
+ * Clicks are made through leftClick and rightClick; a new move after an undo drops the moves that
+ * could have been redone.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class MoveHistory
+{
+    //Kinds of move
+    private static final byte REVEAL = 0;
+    private static final byte FLAG = 1;
+    private static final byte EXPLODE = 2;
+
+    private final Grid grid;
+    private final Board board;
+
+    //Cells changed by every move, back to back: move m changed cells[moveEnd[m - 1]] to cells[moveEnd[m] - 1]
+    private int[] cells = new int[256];
+    private int[] moveEnd = new int[64];
+    private byte[] kinds = new byte[64];
+
+    //Moves recorded, and how many of them are currently applied (the rest can be redone)
+    private int moveCount = 0;
+    private int applied = 0;
+
+    //Cells changed by the last undo or redo: cells[lastFrom] to cells[lastTo - 1]
+    private int lastFrom = 0;
+    private int lastTo = 0;
+
+    /* Constructs an empty history for the moves made on grid from now on */
+    public MoveHistory(Grid grid) {
+
+        this.grid = grid;
+        this.board = grid.getBoard();
+    }
+
+    /* Makes a left click on the cell at [row][col] through Grid.handleLeftClick and records it;
+    returns the number of cells revealed */
+    public int leftClick(int row, int col) {
+
+        int explodedBefore = board.getExplodedIndex();
+        int revealedCells = grid.handleLeftClick(row, col);
+
+        if (revealedCells > 0)
+            record(REVEAL, board.getRevealBatch(), revealedCells);
+
+        //A click on a mine reveals nothing but explodes it
+        else if (board.getExplodedIndex() != explodedBefore)
+            record(EXPLODE, board.getExplodedIndex());
+
+        return revealedCells;
+    }
+
+    /* Makes a right click on the cell at [row][col] through Grid.handleRightClick and records it */
+    public void rightClick(int row, int col) {
+
+        int index = board.indexOf(row, col);
+        boolean flagged = board.containsFlag(index);
+
+        grid.handleRightClick(row, col);
+
+        //Nothing happens to a click once the game is over
+        if (board.containsFlag(index) != flagged)
+            record(FLAG, index);
+    }
+
+    /* Forgets every move, keeping the arrays for the moves of the next game on the same grid */
+    public void clear() {
+
+        moveCount = 0;
+        applied = 0;
+        lastFrom = 0;
+        lastTo = 0;
+    }
+
+    /* Returns whether there is a move to undo */
+    public boolean canUndo() {
+
+        return applied > 0;
+    }
+
+    /* Returns whether there is an undone move to redo */
+    public boolean canRedo() {
+
+        return applied < moveCount;
+    }
+
+    /* Takes back the last move applied; returns false if there is none */
+    public boolean undo() {
+
+        if (!canUndo()) return false;
+
+        applied--;
+        apply(applied, false);
+        return true;
+    }
+
+    /* Makes the last move undone again; returns false if there is none */
+    public boolean redo() {
+
+        if (!canRedo()) return false;
+
+        apply(applied, true);
+        applied++;
+        return true;
+    }
+
+    /* Returns where the cells changed by the last undo or redo start in getChangedCells() */
+    public int getLastFrom() {
+
+        return lastFrom;
+    }
+
+    /* Returns where the cells changed by the last undo or redo end (exclusive) in getChangedCells() */
+    public int getLastTo() {
+
+        return lastTo;
+    }
+
+    /* Returns the array holding the changed cells of every move (see getLastFrom) */
+    public int[] getChangedCells() {
+
+        return cells;
+    }
+
+    /* Returns the number of moves that can be undone */
+    public int getUndoCount() {
+
+        return applied;
+    }
+
+    /* Returns the number of moves that can be redone */
+    public int getRedoCount() {
+
+        return moveCount - applied;
+    }
+
+    /* Returns the approximate memory used by the history in bytes */
+    public long getMemoryBytes() {
+
+        return 4L * cells.length + 5L * moveEnd.length;
+    }
+
+    /* Undoes (forward false) or redoes (forward true) move m */
+    private void apply(int m, boolean forward) {
+
+        lastFrom = (m == 0) ? 0 : moveEnd[m - 1];
+        lastTo = moveEnd[m];
+
+        switch (kinds[m]) {
+
+            case REVEAL:
+                grid.setRevealed(cells, lastFrom, lastTo, forward);
+                break;
+
+            case FLAG:
+                grid.toggleFlag(cells[lastFrom]);
+                break;
+
+            default:
+                grid.setExploded(forward ? cells[lastFrom] : Board.NO_CELL);
+                break;
+        }
+    }
+
+    /* Adds a move that changed the first count cells of changed, dropping any moves that were undone */
+    private void record(byte kind, int[] changed, int count) {
+
+        //Make room first: addMove may replace cells with a larger array
+        int start = addMove(kind, count);
+        System.arraycopy(changed, 0, cells, start, count);
+    }
+
+    /* Adds a move that changed only the cell at index, dropping any moves that were undone */
+    private void record(byte kind, int index) {
+
+        int start = addMove(kind, 1);
+        cells[start] = index;
+    }
+
+    /* Makes room for a move of kind that changes count cells, after the moves still applied;
+    returns where its cells start in cells */
+    private int addMove(byte kind, int count) {
+
+        moveCount = applied;
+        int start = (moveCount == 0) ? 0 : moveEnd[moveCount - 1];
+
+        if (start + count > cells.length)
+            cells = Arrays.copyOf(cells, Math.max(cells.length * 2, start + count));
+
+        if (moveCount == moveEnd.length) {
+            moveEnd = Arrays.copyOf(moveEnd, moveCount * 2);
+            kinds = Arrays.copyOf(kinds, moveCount * 2);
+        }
+
+        moveEnd[moveCount] = start + count;
+        kinds[moveCount] = kind;
+
+        moveCount++;
+        applied = moveCount;
+
+        return start;
+    }
+}
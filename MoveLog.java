@@ -0,0 +1,276 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+/**
+ * MoveLog records one game as a compact, append-only binary log that Replay can play back exactly.
+ * The log starts with a header (level, number of mines and seed, from which the mines are rebuilt,
+ * along with the mines themselves when the seed alone can't rebuild them),
+ * followed by one record per click: the cell index and button packed into a varint, then the time
+ * since the previous click in microseconds as a second varint, so a typical click takes 2 to 4 bytes.
+ * Every KEYFRAME_INTERVAL moves (and before the first one) a keyframe with the flag and revealed
+ * bitsets is written, so a replay can jump to any move by restoring the nearest keyframe before it
+ * and replaying only the few moves after it.
+ *
+ * Recording a click only encodes a few bytes into a buffer kept by the log. Full buffers are written
+ * to the file behind the game by a single shared writer thread and then reused, so the click path
+ * never waits on the disk and does not allocate. Every buffer has room for a full keyframe, so even
+ * the keyframes of a huge board are written without growing one.
+ *
+ * File layout (varints are unsigned LEB128, longs are big-endian):
+ *   "MSLG", version byte, varint level, varint mine total, 8-byte seed, mine layout byte:
+ *   0 if the mines are placed from the seed, 1 if they are placed at the first left click (see
+ *   Grid.withSafeFirstClick), 2 if the mine words (Board.getWords() longs) follow, for a game whose
+ *   mines were already moved off its first click when recording started (a resumed game), then records:
+ *   move      varint (cell << 2 | button << 1), varint microseconds since the previous move
+ *   keyframe  varint 1, varint moves so far, varint exploded cell + 1 (0 if none),
+ *             flag words, revealed words (Board.getWords() longs each)
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class MoveLog implements Closeable
+{
+    static final byte[] MAGIC = { 'M', 'S', 'L', 'G' };
+    static final int VERSION = 3;
+
+    //Mine layout byte of the header
+    static final int MINES_FROM_SEED = 0;
+    static final int MINES_AT_FIRST_CLICK = 1;
+    static final int MINES_IN_HEADER = 2;
+
+    //Low bit of a record's first varint: 0 for a move, 1 for a keyframe
+    static final int KEYFRAME_TAG = 1;
+
+    //Buttons of a move
+    static final int LEFT_BUTTON = 0;
+    static final int RIGHT_BUTTON = 1;
+
+    //Moves between two keyframes
+    static final int KEYFRAME_INTERVAL = 64;
+
+    //A buffer is handed to the writer once it holds this many bytes
+    private static final int FLUSH_BYTES = 4096;
+
+    //The one writer thread shared by every log
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "move-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final OutputStream out;
+    private final Grid grid;
+
+    //Buffer being filled by the game, and emptied buffers handed back by the writer for reuse
+    private final int bufferBytes;
+    private byte[] buffer;
+    private int length = 0;
+    private final ArrayBlockingQueue<byte[]> spareBuffers = new ArrayBlockingQueue<byte[]>(2);
+
+    //Scratch space for the bitsets of a keyframe
+    private final long[] words;
+
+    private int moveCount = 0;
+    private long lastMicros = 0;
+    private boolean closed = false;
+
+    //First error met by the writer (the rest of the log is then dropped)
+    private volatile IOException failure;
+
+    /* Starts the log of grid's game on out, writing the header and a keyframe of the grid as it is now
+    (a no-guess grid already has its start cell open) */
+    public MoveLog(OutputStream out, Grid grid) {
+
+        this.out = out;
+        this.grid = grid;
+
+        Board board = grid.getBoard();
+        words = new long[board.getWords()];
+
+        //Room for a flush worth of moves, then the mines of the header or a keyframe (three varints
+            //and two bitsets), with some slack for the move that crosses FLUSH_BYTES
+        bufferBytes = FLUSH_BYTES + 4 * 10 + 3 * words.length * Long.BYTES + 64;
+        buffer = new byte[bufferBytes];
+
+        for (byte b : MAGIC)
+            buffer[length++] = b;
+
+        buffer[length++] = (byte) VERSION;
+        writeVarint(board.getSize());
+        writeVarint(board.getMineTotal());
+        writeLong(grid.getSeed());
+
+        if (grid.isFirstClickPending()) {
+            buffer[length++] = (byte) MINES_AT_FIRST_CLICK;
+        }
+        else if (grid.areMinesFromSeed()) {
+            buffer[length++] = (byte) MINES_FROM_SEED;
+        }
+        //The seed no longer tells where the mines are, so write them out
+        else {
+            buffer[length++] = (byte) MINES_IN_HEADER;
+
+            board.copyMines(words);
+            for (long word : words)
+                writeLong(word);
+        }
+
+        writeKeyframe();
+    }
+
+    /* Creates file (replacing any file there) and starts the log of grid's game in it */
+    public static MoveLog create(Path file, Grid grid) throws IOException {
+
+        return new MoveLog(Files.newOutputStream(file), grid);
+    }
+
+    /* Records a click on the cell at index, right-click if flag is true, made at elapsedNanos into the
+    game. Call it after the click has been passed to the grid, so the keyframes hold the state after it */
+    public synchronized void recordMove(int index, boolean flag, long elapsedNanos) {
+
+        if (closed) return;
+
+        long micros = elapsedNanos / 1000;
+
+        writeVarint(((long) index << 2) | ((flag ? RIGHT_BUTTON : LEFT_BUTTON) << 1));
+        writeVarint(Math.max(0, micros - lastMicros));
+
+        lastMicros = micros;
+        moveCount++;
+
+        if (moveCount % KEYFRAME_INTERVAL == 0)
+            writeKeyframe();
+
+        if (length >= FLUSH_BYTES)
+            handOff();
+    }
+
+    /* Returns the number of moves recorded */
+    public synchronized int getMoveCount() {
+
+        return moveCount;
+    }
+
+    /* Hands everything recorded so far to the writer thread */
+    public synchronized void flush() {
+
+        if (!closed && length > 0)
+            handOff();
+    }
+
+    /* Writes the rest of the log behind the game and closes the file; later moves are ignored */
+    public synchronized void close() {
+
+        if (closed) return;
+
+        flush();
+        closed = true;
+
+        WRITER.execute(() -> {
+            try {
+                out.close();
+            }
+            catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    /* Returns the first error met while writing the log, or null if there was none */
+    public IOException getFailure() {
+
+        return failure;
+    }
+
+    /* Appends a keyframe of the grid's current state */
+    private void writeKeyframe() {
+
+        Board board = grid.getBoard();
+
+        writeVarint(KEYFRAME_TAG);
+        writeVarint(moveCount);
+        writeVarint(board.getExplodedIndex() + 1);
+
+        board.copyFlags(words);
+        for (long word : words)
+            writeLong(word);
+
+        board.copyRevealed(words);
+        for (long word : words)
+            writeLong(word);
+    }
+
+    /* Passes the filled part of the buffer to the writer thread and carries on in an empty buffer */
+    private void handOff() {
+
+        byte[] full = buffer;
+        int count = length;
+
+        buffer = spareBuffers.poll();
+        if (buffer == null)
+            buffer = new byte[bufferBytes];
+        length = 0;
+
+        WRITER.execute(() -> write(full, count));
+    }
+
+    /* Writer thread: writes count bytes of data, then keeps data for reuse */
+    private void write(byte[] data, int count) {
+
+        if (failure == null) {
+            try {
+                out.write(data, 0, count);
+            }
+            catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        //Only standard-sized buffers are reused (in case one was ever grown)
+        if (data.length == bufferBytes)
+            spareBuffers.offer(data);
+    }
+
+    /* Remembers the first write error and reports it once */
+    private void fail(IOException e) {
+
+        if (failure != null) return;
+
+        failure = e;
+        System.err.println("Move log stopped: " + e);
+    }
+
+    /* Appends value as an unsigned LEB128 varint (7 bits per byte, high bit set on all but the last) */
+    private void writeVarint(long value) {
+
+        ensureRoom(10);
+
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /* Appends value as 8 big-endian bytes */
+    private void writeLong(long value) {
+
+        ensureRoom(8);
+
+        for (int shift = 56; shift >= 0; shift -= 8)
+            buffer[length++] = (byte) (value >>> shift);
+    }
+
+    /* Grows the buffer if fewer than bytes bytes are left in it */
+    private void ensureRoom(int bytes) {
+
+        if (length + bytes > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * NeighborCountBenchmark times the computation of every neighbor mine count on large boards. It
+ * compares the original cell-by-cell loop (eight neighbor checks per cell on a single thread) with
+ * NeighborCounter on fork-join pools of 1, 2, 4, ... up to the number of available cores, and checks
+ * that both give the same counts.
+ *
+ * Usage: java NeighborCountBenchmark [board size] [mine density in percent]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class NeighborCountBenchmark
+{
+    private static final int DEFAULT_SIZE = 4000;
+    private static final int DEFAULT_DENSITY_PERCENT = 16;
+
+    //Untimed runs to let the JIT compile both versions before measuring
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) {
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int density = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DENSITY_PERCENT;
+
+        //Two identical boards, so the band counts are checked against a board the loop never touched
+        Board loopBoard = createBoard(size, density);
+        Board board = createBoard(size, density);
+
+        System.out.println("Board " + size + "x" + size + ", " + board.getMineTotal() + " mines");
+
+        double loopMillis = timeLoop(loopBoard);
+        int[] expected = snapshotCounts(loopBoard);
+
+        System.out.printf("%-22s %10.2f ms%n", "cell-by-cell loop", loopMillis);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double bandMillis = timeBands(board, pool);
+            pool.shutdown();
+
+            //Both versions must produce the exact same counts
+            if (!Arrays.equals(expected, snapshotCounts(board)))
+                throw new IllegalStateException("Band counts differ from the cell-by-cell loop");
+
+            System.out.printf("%-22s %10.2f ms  (%.1fx)%n",
+                "bands, " + threads + " thread(s)", bandMillis, loopMillis / bandMillis);
+
+            if (threads == cores) break;
+        }
+    }
+
+    /* Creates a board with the given percentage of its cells holding mines */
+    private static Board createBoard(int size, int density) {
+
+        SplittableRandom random = new SplittableRandom(size);
+        int cellTotal = size * size;
+        int mineTotal = (int) ((long) cellTotal * density / 100);
+
+        Board board = new Board(size, mineTotal);
+
+        for (int placed = 0; placed < mineTotal; ) {
+
+            int index = random.nextInt(cellTotal);
+
+            if (!board.containsMine(index)) {
+                board.placeMine(index);
+                placed++;
+            }
+        }
+        return board;
+    }
+
+    /* Average time in milliseconds of the original loop over every cell */
+    private static double timeLoop(Board board) {
+
+        for (int run = 0; run < WARMUP_RUNS; run++)
+            countCellByCell(board);
+
+        long start = System.nanoTime();
+
+        for (int run = 0; run < MEASURED_RUNS; run++)
+            countCellByCell(board);
+
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+
+    /* Average time in milliseconds of NeighborCounter on pool */
+    private static double timeBands(Board board, ForkJoinPool pool) {
+
+        for (int run = 0; run < WARMUP_RUNS; run++)
+            NeighborCounter.countAll(board, pool);
+
+        long start = System.nanoTime();
+
+        for (int run = 0; run < MEASURED_RUNS; run++)
+            NeighborCounter.countAll(board, pool);
+
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+
+    /* The loop Grid used before NeighborCounter: check the neighbors of one cell at a time */
+    private static void countCellByCell(Board board) {
+
+        int n = board.getSize();
+
+        for (int i = 0; i < n; i++) {
+
+            for (int j = 0; j < n; j++) {
+
+                if (!containsMine(board, i, j))
+                    board.setNeighborMineCount(board.indexOf(i, j), getNeighborMineCount(board, i, j));
+            }
+        }
+    }
+
+    /* Grid's original neighbor count of the cell at [i][j], one bounds check per neighbor */
+    private static int getNeighborMineCount(Board board, int i, int j) {
+
+        int neighborCount = 0;
+        int last = board.getSize()-1;
+
+        if(i-1 >= 0 && j-1 >= 0) {
+            if(containsMine(board, i-1, j-1))
+                neighborCount++;
+        }
+
+        if(i-1 >= 0) {
+            if(containsMine(board, i-1, j))
+                neighborCount++;
+        }
+
+        if(i-1 >= 0 && j+1 <= last) {
+            if(containsMine(board, i-1, j+1))
+                neighborCount++;
+        }
+
+        if(j-1 >= 0) {
+            if(containsMine(board, i, j-1))
+                neighborCount++;
+        }
+
+        if(j+1 <= last) {
+            if(containsMine(board, i, j+1))
+                neighborCount++;
+        }
+
+        if(i+1 <= last && j-1 >= 0) {
+            if(containsMine(board, i+1, j-1))
+                neighborCount++;
+        }
+
+        if(i+1 <= last) {
+            if(containsMine(board, i+1, j))
+                neighborCount++;
+        }
+
+        if(i+1 <= last && j+1 <= last) {
+            if(containsMine(board, i+1, j+1))
+                neighborCount++;
+        }
+
+        return neighborCount;
+    }
+
+    /* Determines if the cell at [i][j] contains a mine */
+    private static boolean containsMine(Board board, int i, int j) {
+
+        return board.containsMine(board.indexOf(i, j));
+    }
+
+    /* Copies every count out of the board so two runs can be compared */
+    private static int[] snapshotCounts(Board board) {
+
+        int[] counts = new int[board.getCellTotal()];
+
+        for (int index = 0; index < counts.length; index++)
+            counts[index] = board.getNeighborMineCount(index);
+
+        return counts;
+    }
+}
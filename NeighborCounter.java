@@ -0,0 +1,199 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+/**
+ * NeighborCounter computes the neighbor mine count of every cell of a Board. The rows of the board
+ * are split into bands that are counted in parallel on a fork-join pool. Within a band, a whole row
+ * is counted 64 cells at a time: the mine bits of the rows above, at and below are added together
+ * as bit-sliced binary numbers (one long per bit of the sum) instead of one cell at a time.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class NeighborCounter
+{
+    //Number of cells below which a band is counted without splitting it any further
+    private static final int BAND_CELLS = 1 << 16;
+
+    /* Computes and stores the neighbor count of every non-mine cell on the common fork-join pool */
+    public static void countAll(Board board) {
+
+        countAll(board, ForkJoinPool.commonPool());
+    }
+
+    /* Computes and stores the neighbor count of every non-mine cell, splitting the work on pool */
+    public static void countAll(Board board, ForkJoinPool pool) {
+
+        BandTask all = new BandTask(board, 0, board.getSize(), bandRows(board));
+
+        //Small boards (such as every level of the game) are counted right on the calling thread
+        if (board.getCellTotal() <= BAND_CELLS)
+            all.compute();
+        else
+            pool.invoke(all);
+    }
+
+    /* Counts the mines surrounding a single cell by checking each of its (up to) eight neighbors */
+    public static int countAt(Board board, int index) {
+
+        int n = board.getSize();
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
+
+        int neighborCount = 0;
+
+        //Clamp the 3x3 block so border cells don't cross the bounds of the board
+        for (int i = Math.max(row-1, 0); i <= Math.min(row+1, n-1); i++) {
+
+            for (int j = Math.max(col-1, 0); j <= Math.min(col+1, n-1); j++) {
+
+                if ((i != row || j != col) && board.containsMine(board.indexOf(i, j)))
+                    neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    /* Number of rows that a band may hold before it is split in two */
+    private static int bandRows(Board board) {
+
+        int rows = Math.max(1, BAND_CELLS / board.getSize());
+
+        //Two cells share a byte of the count array, so with an odd board size every band must
+            //start on an even row; otherwise two bands could write to the same byte at once
+        if (board.getSize() % 2 != 0 && rows % 2 != 0)
+            rows++;
+
+        return rows;
+    }
+
+    /* Counts the rows [rowStart, rowEnd) of a board, splitting them in half while there are too many */
+    private static class BandTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int rowStart;
+        private final int rowEnd;
+        private final int maxRows;
+
+        BandTask(Board board, int rowStart, int rowEnd, int maxRows) {
+
+            this.board = board;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.maxRows = maxRows;
+        }
+
+        protected void compute() {
+
+            int rows = rowEnd - rowStart;
+
+            if (rows <= maxRows) {
+                countBand();
+                return;
+            }
+
+            //Split on a multiple of maxRows so that every band keeps starting on an even row
+            int middle = rowStart + ((rows / maxRows + 1) / 2) * maxRows;
+
+            invokeAll(new BandTask(board, rowStart, middle, maxRows),
+                      new BandTask(board, middle, rowEnd, maxRows));
+        }
+
+        /* Counts each row of the band, sliding a window of three rows of mine bits down the band */
+        private void countBand() {
+
+            int n = board.getSize();
+            int words = board.getRowWords();
+
+            long[] above = new long[words];
+            long[] current = new long[words];
+            long[] below = new long[words];
+
+            //Sum of the column of three cells centered on each cell, as a 2-bit number (bit 0 and bit 1)
+            long[] column0 = new long[words];
+            long[] column1 = new long[words];
+
+            if (rowStart > 0)
+                board.copyMineRow(rowStart - 1, above);
+
+            board.copyMineRow(rowStart, current);
+
+            for (int row = rowStart; row < rowEnd; row++) {
+
+                if (row + 1 < n)
+                    board.copyMineRow(row + 1, below);
+                else
+                    Arrays.fill(below, 0);
+
+                //Add the three rows together, 64 columns at a time
+                for (int k = 0; k < words; k++) {
+                    long a = above[k], b = current[k], c = below[k];
+
+                    column0[k] = a ^ b ^ c;
+                    column1[k] = (a & b) | (a & c) | (b & c);
+                }
+
+                for (int k = 0; k < words; k++) {
+
+                    //Column sums of the columns to the left and right of each cell
+                    long left0 = (column0[k] << 1) | (k > 0 ? column0[k-1] >>> 63 : 0);
+                    long left1 = (column1[k] << 1) | (k > 0 ? column1[k-1] >>> 63 : 0);
+                    long right0 = (column0[k] >>> 1) | (k + 1 < words ? column0[k+1] << 63 : 0);
+                    long right1 = (column1[k] >>> 1) | (k + 1 < words ? column1[k+1] << 63 : 0);
+
+                    //The cell's own column only counts the cells above and below it
+                    long middle0 = above[k] ^ below[k];
+                    long middle1 = above[k] & below[k];
+
+                    //left + right (0..6, 3 bits)
+                    long sum0 = left0 ^ right0;
+                    long carry = left0 & right0;
+                    long sum1 = left1 ^ right1 ^ carry;
+                    long sum2 = (left1 & right1) | (left1 & carry) | (right1 & carry);
+
+                    //+ middle (0..8, 4 bits)
+                    long count0 = sum0 ^ middle0;
+                    carry = sum0 & middle0;
+                    long count1 = sum1 ^ middle1 ^ carry;
+                    carry = (sum1 & middle1) | (sum1 & carry) | (middle1 & carry);
+                    long count2 = sum2 ^ carry;
+                    long count3 = sum2 & carry;
+
+                    storeCounts(row, k, current[k], count0, count1, count2, count3);
+                }
+
+                //Slide the window down one row, reusing the oldest row's array for the next one
+                long[] spare = above;
+                above = current;
+                current = below;
+                below = spare;
+            }
+        }
+
+        /* Stores the 64 counts of word k of a row, skipping mine cells and columns past the board */
+        private void storeCounts(int row, int k, long mineBits,
+                                 long count0, long count1, long count2, long count3) {
+
+            int n = board.getSize();
+            int firstCol = k * 64;
+            int lastCol = Math.min(firstCol + 64, n);
+            int rowStartIndex = board.indexOf(row, 0);
+
+            for (int col = firstCol; col < lastCol; col++) {
+
+                int bit = col - firstCol;
+
+                if (((mineBits >>> bit) & 1) != 0) continue;
+
+                int count = (int) (((count0 >>> bit) & 1)
+                                 | (((count1 >>> bit) & 1) << 1)
+                                 | (((count2 >>> bit) & 1) << 2)
+                                 | (((count3 >>> bit) & 1) << 3));
+
+                board.setNeighborMineCount(rowStartIndex + col, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * NoGuessGenerator finds grids that can be won by logic alone, with no guessing, from the first click.
+ * The first click is always the center cell, and a candidate grid is only accepted if that cell opens
+ * a region (no neighboring mines) and the Solver, with guessing turned off, wins from there.
+ * Candidates are generated from consecutive seeds by Grid itself (randomizeMines and
+ * setAllNeighborMineCounts) and tried in parallel on every core; all workers stop as soon as one
+ * candidate is accepted. The average number of candidates tried and the time taken per accepted
+ * grid are kept for each level.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class NoGuessGenerator
+{
+    private final ExecutorService pool;
+    private final int threads;
+
+    //Next seed to try; every worker takes its own seeds from here
+    private final AtomicLong nextSeed;
+
+    //Per level: { accepted grids, candidates tried, nanoseconds spent }
+    private final Map<Integer, long[]> stats = new HashMap<Integer, long[]>();
+
+    /* Constructs a generator that tries candidates on every available core */
+    public NoGuessGenerator() {
+
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /* Constructs a generator that tries candidates on the given number of threads */
+    public NoGuessGenerator(int threads) {
+
+        this(threads, Thread.NORM_PRIORITY);
+    }
+
+    /* Constructs a generator whose threads run at the given priority
+    (a low priority lets generation run in the background without slowing down the game) */
+    public NoGuessGenerator(int threads, int priority) {
+
+        this.threads = threads;
+        this.nextSeed = new AtomicLong(new MinePlacer(System.nanoTime()).nextLong());
+
+        //Daemon threads, so an idle generator never keeps the program running
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-generator");
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        });
+    }
+
+    /* Returns the index of the first cell to open on a no-guess grid (its center cell) */
+    public static int getStartIndex(Board board) {
+
+        return board.indexOf(board.getSize() / 2, board.getSize() / 2);
+    }
+
+    /* Returns the seed of a grid at level that can be won without guessing
+    after a left click on getStartIndex() */
+    public long generate(int level) {
+
+        long start = System.nanoTime();
+
+        AtomicBoolean found = new AtomicBoolean(false);
+        AtomicLong attempts = new AtomicLong();
+
+        List<Callable<Long>> workers = new ArrayList<Callable<Long>>();
+
+        for (int t = 0; t < threads; t++) {
+            workers.add(() -> search(level, found, attempts));
+        }
+
+        long seed;
+
+        try {
+            //Returns the seed of the first worker to find a grid; the others see found and stop
+            seed = pool.invokeAny(workers);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("No-guess generation failed", e);
+        }
+
+        recordStats(level, attempts.get(), System.nanoTime() - start);
+
+        return seed;
+    }
+
+    /* Returns the average number of candidates tried per accepted grid at level */
+    public synchronized double getAverageAttempts(int level) {
+
+        long[] levelStats = stats.get(level);
+        return levelStats == null ? 0 : (double) levelStats[1] / levelStats[0];
+    }
+
+    /* Returns the average time in milliseconds to find an accepted grid at level */
+    public synchronized double getAverageMillis(int level) {
+
+        long[] levelStats = stats.get(level);
+        return levelStats == null ? 0 : levelStats[2] / 1e6 / levelStats[0];
+    }
+
+    /* Returns a headless grid at level that can be won without guessing, with its start cell opened */
+    public Grid generateGrid(int level) {
+
+        Grid grid = new Grid(level, generate(level));
+
+        //Open the cell the grid was generated to be solved from
+        Board board = grid.getBoard();
+        int start = getStartIndex(board);
+        grid.handleLeftClick(board.rowOf(start), board.colOf(start));
+
+        return grid;
+    }
+
+    /* Stops the worker threads */
+    public void shutdown() {
+
+        pool.shutdownNow();
+    }
+
+    /* Tries candidates until one is accepted (by this or another worker); returns the seed found */
+    private Long search(int level, AtomicBoolean found, AtomicLong attempts) {
+
+        Solver solver = new Solver();
+
+        while (!found.get()) {
+
+            long seed = nextSeed.getAndIncrement();
+            attempts.incrementAndGet();
+
+            if (isNoGuess(solver, new Grid(level, seed)) && found.compareAndSet(false, true))
+                return seed;
+        }
+
+        //Another worker got there first
+        throw new IllegalStateException("Stopped: another worker found a grid");
+    }
+
+    /* Determines if grid opens a region at its start cell and can be won from there by logic alone */
+    private static boolean isNoGuess(Solver solver, Grid grid) {
+
+        Board board = grid.getBoard();
+        int start = getStartIndex(board);
+
+        if (board.containsMine(start) || board.getNeighborMineCount(start) != 0)
+            return false;
+
+        return solver.play(grid, start, false) == Solver.WON;
+    }
+
+    /* Adds one accepted grid to the stats of level */
+    private synchronized void recordStats(int level, long attempts, long nanos) {
+
+        long[] levelStats = stats.get(level);
+
+        if (levelStats == null) {
+            levelStats = new long[3];
+            stats.put(level, levelStats);
+        }
+
+        levelStats[0]++;
+        levelStats[1] += attempts;
+        levelStats[2] += nanos;
+    }
+
+    /* Generates a number of grids at each level and reports attempts and time per accepted grid
+    Usage: java NoGuessGenerator [grids per level] */
+    public static void main(String[] args) {
+
+        int grids = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int[] levels = { Grid.EASY_LEVEL, Grid.MEDIUM_LEVEL, Grid.HARD_LEVEL };
+
+        NoGuessGenerator generator = new NoGuessGenerator();
+
+        for (int level : levels) {
+
+            for (int i = 0; i < grids; i++)
+                generator.generate(level);
+
+            System.out.printf("%dx%d: %.2f attempts per grid, %.3f ms per grid%n",
+                level, level, generator.getAverageAttempts(level), generator.getAverageMillis(level));
+        }
+
+        generator.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * PlayerView is a read-only view of a game for a Strategy: it shows exactly what a player sees on
+ * screen (which cells are revealed or flagged and the counts of revealed cells) and never where the
+ * hidden mines are. A view is moved from one game to the next with setGrid, so a worker playing
+ * millions of games needs only one.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public final class PlayerView
+{
+    private Grid grid;
+    private Board board;
+
+    /* Makes the view show grid */
+    void setGrid(Grid grid) {
+
+        this.grid = grid;
+        this.board = grid.getBoard();
+    }
+
+    /* Returns the number of rows (and columns) of the board */
+    public int getSize() {
+
+        return board.getSize();
+    }
+
+    /* Returns the number of cells of the board */
+    public int getCellTotal() {
+
+        return board.getCellTotal();
+    }
+
+    /* Returns the number of mines on the board */
+    public int getMineTotal() {
+
+        return board.getMineTotal();
+    }
+
+    /* Returns the index of the cell at row and col */
+    public int indexOf(int row, int col) {
+
+        return board.indexOf(row, col);
+    }
+
+    /* Returns the row of the cell at index */
+    public int rowOf(int index) {
+
+        return board.rowOf(index);
+    }
+
+    /* Returns the column of the cell at index */
+    public int colOf(int index) {
+
+        return board.colOf(index);
+    }
+
+    /* Returns true if the cell at index has been revealed */
+    public boolean isRevealed(int index) {
+
+        return board.isRevealed(index);
+    }
+
+    /* Returns true if the cell at index is flagged */
+    public boolean isFlagged(int index) {
+
+        return board.containsFlag(index);
+    }
+
+    /* Returns the neighbor mine count of a revealed cell, or -1 if the cell is not revealed */
+    public int getCount(int index) {
+
+        return board.isRevealed(index) ? board.getNeighborMineCount(index) : -1;
+    }
+
+    /* Returns the number of flags on the board */
+    public int getFlagCount() {
+
+        return board.getFlagCount();
+    }
+
+    /* Returns the number of revealed cells */
+    public int getRevealedCount() {
+
+        return board.getRevealedCount();
+    }
+
+    /* Returns true once the game has been won or lost */
+    public boolean isGameOver() {
+
+        return grid.isGameOver();
+    }
+}
@@ -0,0 +1,726 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+/**
+ * ProbabilityEngine computes the exact chance that each hidden cell of a board holds a mine, given the
+ * counts revealed so far, for the hint overlay. Flags are the player's guesses, so they are ignored.
+ *
+ * The hidden cells next to revealed counts (the frontier) are split into components: cells that share
+ * a count are in the same component. The solutions of each component are enumerated by backtracking
+ * and kept by number of mines, along with how often each cell holds a mine. Components are then
+ * combined with the cells away from the frontier, weighting a component solution of k mines by the
+ * number of ways the remaining mines fit in those cells (a binomial, worked out in log space).
+ *
+ * After a move only the components next to the cells it revealed are rebuilt and enumerated again,
+ * the enumerations of all the others are reused, so the cost of an update depends on the move and on
+ * the number of components, not on the size of the board. Components whose enumeration would take
+ * too long are estimated from their counts instead, and when there are too many components to combine
+ * exactly (on very large boards) they are combined with a mine density chosen so that the expected
+ * number of mines is right, which is very close to exact once many cells are away from the frontier.
+ *
+ * The engine is updated on the game thread and read while painting; both are synchronized on it.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class ProbabilityEngine
+{
+    //Probability of a revealed cell (it is never a mine)
+    public static final float REVEALED = -1;
+
+    //Steps of backtracking allowed for one component, and its largest number of cells,
+        //before it is estimated instead
+    private static final int MAX_STEPS = 1 << 20;
+    private static final int MAX_CELLS = 256;
+
+    //Largest number of components x mine counts combined exactly (memory of the combination)
+    private static final int EXACT_BUDGET = 1 << 16;
+
+    private final Board board;
+    private final int size;
+
+    //Component of each frontier cell and each revealed count next to one (null elsewhere)
+    private final Component[] componentOf;
+
+    //Position of each frontier cell in its component
+    private final int[] slotOf;
+
+    private final ArrayList<Component> components = new ArrayList<Component>();
+
+    //Number of hidden cells in all components
+    private int frontierCells;
+
+    //Probability of every hidden cell away from the frontier
+    private float interiorProbability;
+
+    //Log odds of a mine found by the last combination by density (the next one starts from it)
+    private double logOdds = Double.NaN;
+
+    private boolean exact;
+    private int lastEnumerated;
+    private long lastUpdateNanos;
+
+    //Reused work space of the component search and enumeration
+    private int[] stack = new int[64];
+    private int[] seeds = new int[64];
+    private int seedCount;
+    private int[] cellBuffer = new int[64];
+    private int[] constraintBuffer = new int[64];
+
+    /* Constructs the engine for board and computes every probability */
+    public ProbabilityEngine(Board board) {
+
+        this.board = board;
+        this.size = board.getSize();
+
+        componentOf = new Component[board.getCellTotal()];
+        slotOf = new int[board.getCellTotal()];
+
+        rebuild();
+    }
+
+    /* Computes every probability again from the state of the board */
+    public synchronized void rebuild() {
+
+        long start = System.nanoTime();
+
+        Arrays.fill(componentOf, null);
+        components.clear();
+        frontierCells = 0;
+        lastEnumerated = 0;
+
+        for (int index = 0; index < componentOf.length; index++) {
+
+            if (componentOf[index] == null && board.isRevealed(index) && hasHiddenNeighbor(index))
+                lastEnumerated += buildComponent(index);
+        }
+
+        combine();
+        lastUpdateNanos = System.nanoTime() - start;
+    }
+
+    /* Brings the probabilities up to date after the first count cells of cells were revealed (see
+    Board.getRevealBatch) or hidden again (by an undo); flags placed or removed don't change them */
+    public void update(int[] cells, int count) {
+
+        update(cells, 0, count);
+    }
+
+    /* Brings the probabilities up to date after cells[from] to cells[to - 1] were revealed or hidden */
+    public synchronized void update(int[] cells, int from, int to) {
+
+        long start = System.nanoTime();
+
+        seedCount = 0;
+        lastEnumerated = 0;
+
+        //Every component touching a revealed cell or one of its neighbors has changed
+        for (int i = from; i < to; i++) {
+
+            int index = cells[i];
+            int row = board.rowOf(index);
+            int col = board.colOf(index);
+
+            boolean hidden = !board.isRevealed(index);
+
+            dissolve(componentOf[index]);
+            addSeed(index);
+
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+
+                    int neighbor = board.indexOf(r, c);
+                    dissolve(componentOf[neighbor]);
+
+                    //A count next to a cell hidden again may have joined the frontier
+                    if (hidden && board.isRevealed(neighbor))
+                        addSeed(neighbor);
+                }
+            }
+        }
+
+        //Regroup the counts of the changed components (and the new counts) into components
+        for (int i = 0; i < seedCount; i++) {
+
+            int index = seeds[i];
+
+            if (componentOf[index] == null && board.isRevealed(index) && hasHiddenNeighbor(index))
+                lastEnumerated += buildComponent(index);
+        }
+
+        combine();
+        lastUpdateNanos = System.nanoTime() - start;
+    }
+
+    /* Returns the probability (0 to 1) that the cell at index holds a mine, or REVEALED */
+    public synchronized float getProbability(int index) {
+
+        if (board.isRevealed(index)) return REVEALED;
+
+        Component component = componentOf[index];
+
+        return component == null ? interiorProbability : component.probability[slotOf[index]];
+    }
+
+    /* Returns the number of components of the frontier */
+    public synchronized int getComponentCount() {
+
+        return components.size();
+    }
+
+    /* Returns the number of components enumerated by the last update (the others were reused) */
+    public synchronized int getLastEnumeratedCount() {
+
+        return lastEnumerated;
+    }
+
+    /* Returns whether the probabilities are exact (no component estimated, combined exactly) */
+    public synchronized boolean isExact() {
+
+        return exact;
+    }
+
+    /* Returns how long the last update took, in nanoseconds */
+    public synchronized long getLastUpdateNanos() {
+
+        return lastUpdateNanos;
+    }
+
+    /* Removes component, keeping its counts to be regrouped */
+    private void dissolve(Component component) {
+
+        if (component == null || component.position < 0) return;
+
+        //Swap the last component into its place
+        Component last = components.remove(components.size() - 1);
+        if (last != component) {
+            components.set(component.position, last);
+            last.position = component.position;
+        }
+        component.position = -1;
+        frontierCells -= component.cells.length;
+
+        for (int cell : component.cells)
+            componentOf[cell] = null;
+
+        for (int constraint : component.constraints) {
+            componentOf[constraint] = null;
+            addSeed(constraint);
+        }
+    }
+
+    /* Adds a count to regroup */
+    private void addSeed(int index) {
+
+        if (seedCount == seeds.length)
+            seeds = Arrays.copyOf(seeds, seedCount * 2);
+
+        seeds[seedCount++] = index;
+    }
+
+    /* Collects the component holding the revealed count at first, enumerates it and adds it;
+    returns 1 (the number of components enumerated) */
+    private int buildComponent(int first) {
+
+        Component component = new Component();
+        int cellCount = 0;
+        int constraintCount = 0;
+        int top = 0;
+
+        componentOf[first] = component;
+        stack[top++] = first;
+
+        //Alternate between counts and the hidden cells next to them
+        while (top > 0) {
+
+            int index = stack[--top];
+            boolean revealed = board.isRevealed(index);
+
+            if (revealed) {
+                if (constraintCount == constraintBuffer.length)
+                    constraintBuffer = Arrays.copyOf(constraintBuffer, constraintCount * 2);
+                constraintBuffer[constraintCount++] = index;
+            }
+            else {
+                if (cellCount == cellBuffer.length)
+                    cellBuffer = Arrays.copyOf(cellBuffer, cellCount * 2);
+                slotOf[index] = cellCount;
+                cellBuffer[cellCount++] = index;
+            }
+
+            int row = board.rowOf(index);
+            int col = board.colOf(index);
+
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+
+                    int neighbor = board.indexOf(r, c);
+
+                    //A count leads to hidden cells, a hidden cell to counts
+                    if (componentOf[neighbor] != null || board.isRevealed(neighbor) == revealed) continue;
+
+                    componentOf[neighbor] = component;
+                    if (top == stack.length)
+                        stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = neighbor;
+                }
+            }
+        }
+
+        component.cells = Arrays.copyOf(cellBuffer, cellCount);
+        component.constraints = Arrays.copyOf(constraintBuffer, constraintCount);
+        component.probability = new float[cellCount];
+
+        enumerate(component);
+
+        component.position = components.size();
+        components.add(component);
+        frontierCells += cellCount;
+
+        return 1;
+    }
+
+    /* Counts the solutions of component by number of mines, and how often each cell holds a mine */
+    private void enumerate(Component component) {
+
+        Search search = new Search(component);
+
+        if (component.cells.length <= MAX_CELLS && search.run()) {
+            search.store();
+            return;
+        }
+
+        //Too many solutions to list: estimate each cell from its tightest count
+        int m = component.cells.length;
+        double mines = 0;
+
+        component.cellMines = new double[m];
+
+        for (int slot = 0; slot < m; slot++) {
+
+            double estimate = 0;
+            for (int j : search.constraintsOf[slot])
+                estimate = Math.max(estimate, (double) search.count[j] / search.hidden[j]);
+
+            component.cellMines[slot] = estimate;
+            mines += estimate;
+        }
+        component.minMines = component.maxMines = (int) Math.round(mines);
+        component.weights = new double[] { 1 };
+        component.approximate = true;
+    }
+
+    /* Combines the components with the cells away from the frontier into the probability of each cell */
+    private void combine() {
+
+        int mineTotal = board.getMineTotal();
+        int interior = board.getCellTotal() - board.getRevealedCount() - frontierCells;
+
+        int maxFrontierMines = 0;
+        boolean allEnumerated = true;
+
+        for (Component component : components) {
+            maxFrontierMines += component.maxMines;
+            allEnumerated &= !component.approximate;
+        }
+
+        int cap = Math.min(maxFrontierMines, mineTotal);
+
+        if ((long) (components.size() + 1) * (cap + 1) <= EXACT_BUDGET) {
+            combineExactly(mineTotal, interior, cap);
+            exact = allEnumerated;
+        }
+        else {
+            combineByDensity(mineTotal, interior);
+            exact = false;
+        }
+    }
+
+    /* Weights every combination of component solutions by the number of ways to place the remaining
+    mines away from the frontier: C(interior, mineTotal - frontier mines) */
+    private void combineExactly(int mineTotal, int interior, int cap) {
+
+        int count = components.size();
+        int width = cap + 1;
+
+        //ways[k]: C(interior, mineTotal - k) relative to its largest value
+        double[] ways = new double[width];
+        double[] logWays = new double[width];
+        double maxLog = Double.NEGATIVE_INFINITY;
+
+        for (int k = cap; k >= 0; k--) {
+
+            int rest = mineTotal - k;
+
+            if (rest > interior)
+                logWays[k] = Double.NEGATIVE_INFINITY;
+            else if (k == cap || logWays[k + 1] == Double.NEGATIVE_INFINITY)
+                logWays[k] = 0;
+            else
+                //C(n, r) = C(n, r - 1) * (n - r + 1) / r
+                logWays[k] = logWays[k + 1] + Math.log(interior - rest + 1) - Math.log(rest);
+
+            maxLog = Math.max(maxLog, logWays[k]);
+        }
+        for (int k = 0; k < width; k++)
+            ways[k] = maxLog == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logWays[k] - maxLog);
+
+        //after[i][j]: weight of the components from i on and the interior, given j mines before them
+        double[][] after = new double[count + 1][];
+        after[count] = ways;
+
+        for (int i = count - 1; i >= 0; i--)
+            after[i] = normalize(shift(after[i + 1], components.get(i), width));
+
+        //before: weight of each number of mines in the components before i
+        double[] before = new double[width];
+        before[0] = 1;
+
+        for (int i = 0; i < count; i++) {
+
+            Component component = components.get(i);
+            double[] next = after[i + 1];
+            int m = component.cells.length;
+            int kRange = component.weights.length;
+
+            //rest[k]: weight of all the other components and the interior given k mines in this one
+            double[] rest = new double[kRange];
+            for (int k = 0; k < kRange; k++) {
+                int mines = component.minMines + k;
+                for (int j = 0; j + mines < width; j++)
+                    rest[k] += before[j] * next[j + mines];
+            }
+
+            setProbabilities(component, rest);
+
+            //Add this component's mines to before
+            double[] sum = new double[width];
+            for (int j = 0; j < width; j++) {
+                if (before[j] == 0) continue;
+                for (int k = 0; k < kRange && j + component.minMines + k < width; k++)
+                    sum[j + component.minMines + k] += before[j] * component.weights[k];
+            }
+            before = normalize(sum);
+        }
+
+        //Expected number of mines away from the frontier
+        double total = 0;
+        double expected = 0;
+        for (int j = 0; j < width; j++) {
+            total += before[j] * ways[j];
+            expected += before[j] * ways[j] * (mineTotal - j);
+        }
+        interiorProbability = interior > 0 && total > 0 ? (float) (expected / total / interior) : 0;
+    }
+
+    /* Returns w[j] = sum over k of the component's weight of k mines times next[j + k] */
+    private static double[] shift(double[] next, Component component, int width) {
+
+        double[] shifted = new double[width];
+
+        for (int j = 0; j < width; j++) {
+            for (int k = 0; k < component.weights.length && j + component.minMines + k < width; k++)
+                shifted[j] += component.weights[k] * next[j + component.minMines + k];
+        }
+        return shifted;
+    }
+
+    /* Combines the components as if each cell away from the frontier held a mine independently, with
+    the odds per mine chosen so that the expected number of mines on the board is mineTotal */
+    private void combineByDensity(int mineTotal, int interior) {
+
+        //Newton's method on the log of the odds, kept inside a bisection bracket: the expected number
+            //of mines grows with the odds, and its slope is the variance of the number of mines
+        double low = -50;
+        double high = 50;
+        double x = Double.isNaN(logOdds) ? 0 : logOdds;
+        double[] moments = new double[2];
+
+        for (int step = 0; step < 100; step++) {
+
+            double q = 1 / (1 + Math.exp(-x));
+            double expected = interior * q;
+            double variance = interior * q * (1 - q);
+
+            for (Component component : components) {
+                mineMoments(component, x, moments);
+                expected += moments[0];
+                variance += moments[1];
+            }
+
+            double error = expected - mineTotal;
+            if (Math.abs(error) < 1e-6) break;
+
+            if (error < 0) low = x; else high = x;
+
+            double next = x - error / variance;
+            x = next > low && next < high ? next : (low + high) / 2;
+        }
+        logOdds = x;
+
+        for (Component component : components) {
+
+            double[] rest = new double[component.weights.length];
+            double top = Math.max(component.minMines * x, component.maxMines * x);
+
+            for (int k = 0; k < rest.length; k++)
+                rest[k] = Math.exp((component.minMines + k) * x - top);
+
+            setProbabilities(component, rest);
+        }
+        interiorProbability = (float) (1 / (1 + Math.exp(-x)));
+    }
+
+    /* Sets moments to the mean and variance of the number of mines of component when each mine
+    has the given log odds */
+    private static void mineMoments(Component component, double logOdds, double[] moments) {
+
+        double top = Math.max(component.minMines * logOdds, component.maxMines * logOdds);
+
+        double total = 0;
+        double mines = 0;
+        double squares = 0;
+
+        for (int k = 0; k < component.weights.length; k++) {
+            int count = component.minMines + k;
+            double weight = component.weights[k] * Math.exp(count * logOdds - top);
+            total += weight;
+            mines += weight * count;
+            squares += weight * count * count;
+        }
+
+        double mean = total > 0 ? mines / total : component.minMines;
+        moments[0] = mean;
+        moments[1] = total > 0 ? Math.max(0, squares / total - mean * mean) : 0;
+    }
+
+    /* Sets the probability of each cell of component, given the weight of the rest of the board
+    for each number of mines in the component */
+    private static void setProbabilities(Component component, double[] rest) {
+
+        int m = component.cells.length;
+        double total = 0;
+
+        for (int k = 0; k < rest.length; k++)
+            total += component.weights[k] * rest[k];
+
+        for (int slot = 0; slot < m; slot++) {
+
+            double mines = 0;
+            for (int k = 0; k < rest.length; k++)
+                mines += component.cellMines[k * m + slot] * rest[k];
+
+            component.probability[slot] = total > 0 ? (float) Math.min(1, mines / total) : 0;
+        }
+    }
+
+    /* Scales values so the largest is 1 (only ratios matter) and returns them */
+    private static double[] normalize(double[] values) {
+
+        double max = 0;
+        for (double value : values)
+            max = Math.max(max, value);
+
+        if (max > 0) {
+            for (int i = 0; i < values.length; i++)
+                values[i] /= max;
+        }
+        return values;
+    }
+
+    /* Returns whether any neighbor of the cell at index is hidden */
+    private boolean hasHiddenNeighbor(int index) {
+
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
+
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                if (!board.isRevealed(board.indexOf(r, c)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A group of frontier cells and the counts next to them, with its enumerated solutions.
+     */
+    private static class Component
+    {
+        //Position in the list of components (-1 once dissolved)
+        int position = -1;
+
+        int[] cells;
+        int[] constraints;
+
+        //weights[k]: solutions with minMines + k mines; cellMines[k * cells + slot]: how many of
+        //them put a mine on the cell in slot (both scaled by the same factor)
+        int minMines;
+        int maxMines;
+        double[] weights;
+        double[] cellMines;
+        boolean approximate;
+
+        float[] probability;
+    }
+
+    /**
+     * Backtracking over the cells of one component: each cell is tried empty and mined, and a branch
+     * is dropped as soon as a count can no longer be met.
+     */
+    private class Search
+    {
+        private final Component component;
+        private final int m;
+
+        //Counts next to each cell, and for each count its value and hidden cells, then
+            //the mines it still needs and the cells it has left during the search
+        private final int[][] constraintsOf;
+        private final int[] count;
+        private final int[] hidden;
+        private final int[] needed;
+        private final int[] unassigned;
+
+        private final boolean[] mined;
+        private final double[] solutions;
+        private final double[] cellSolutions;
+        private int steps;
+
+        Search(Component component) {
+
+            this.component = component;
+            m = component.cells.length;
+
+            int q = component.constraints.length;
+            needed = new int[q];
+            unassigned = new int[q];
+
+            int[] degree = new int[m];
+            for (int j = 0; j < q; j++) {
+
+                int constraint = component.constraints[j];
+                needed[j] = board.getNeighborMineCount(constraint);
+
+                int row = board.rowOf(constraint);
+                int col = board.colOf(constraint);
+
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        int neighbor = board.indexOf(r, c);
+                        if (!board.isRevealed(neighbor)) {
+                            degree[slotOf[neighbor]]++;
+                            unassigned[j]++;
+                        }
+                    }
+                }
+            }
+
+            constraintsOf = new int[m][];
+            for (int slot = 0; slot < m; slot++)
+                constraintsOf[slot] = new int[degree[slot]];
+
+            Arrays.fill(degree, 0);
+            for (int j = 0; j < q; j++) {
+
+                int constraint = component.constraints[j];
+                int row = board.rowOf(constraint);
+                int col = board.colOf(constraint);
+
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        int neighbor = board.indexOf(r, c);
+                        if (!board.isRevealed(neighbor)) {
+                            int slot = slotOf[neighbor];
+                            constraintsOf[slot][degree[slot]++] = j;
+                        }
+                    }
+                }
+            }
+
+            count = needed.clone();
+            hidden = unassigned.clone();
+
+            mined = new boolean[m];
+            solutions = new double[m > MAX_CELLS ? 0 : m + 1];
+            cellSolutions = new double[m > MAX_CELLS ? 0 : (m + 1) * m];
+        }
+
+        /* Enumerates every solution; returns false if it took more than MAX_STEPS */
+        boolean run() {
+
+            return search(0, 0);
+        }
+
+        /* Tries both values of the cell in slot, with mines placed on the cells before it */
+        private boolean search(int slot, int mines) {
+
+            if (++steps > MAX_STEPS) return false;
+
+            if (slot == m) {
+                solutions[mines]++;
+                for (int s = 0; s < m; s++) {
+                    if (mined[s])
+                        cellSolutions[mines * m + s]++;
+                }
+                return true;
+            }
+
+            for (int value = 0; value <= 1; value++) {
+
+                if (assign(slot, value)) {
+                    mined[slot] = value == 1;
+                    if (!search(slot + 1, mines + value)) return false;
+                }
+                unassign(slot, value);
+            }
+            mined[slot] = false;
+            return true;
+        }
+
+        /* Gives the cell in slot a value; returns false if a count next to it can no longer be met */
+        private boolean assign(int slot, int value) {
+
+            boolean possible = true;
+
+            for (int j : constraintsOf[slot]) {
+                unassigned[j]--;
+                needed[j] -= value;
+                possible &= needed[j] >= 0 && needed[j] <= unassigned[j];
+            }
+            return possible;
+        }
+
+        /* Takes back assign */
+        private void unassign(int slot, int value) {
+
+            for (int j : constraintsOf[slot]) {
+                unassigned[j]++;
+                needed[j] += value;
+            }
+        }
+
+        /* Stores the solutions in the component, trimmed to the numbers of mines that have any */
+        void store() {
+
+            int min = 0;
+            while (min < m && solutions[min] == 0) min++;
+            int max = m;
+            while (max > min && solutions[max] == 0) max--;
+
+            double scale = 0;
+            for (int k = min; k <= max; k++)
+                scale = Math.max(scale, solutions[k]);
+
+            component.minMines = min;
+            component.maxMines = max;
+            component.weights = new double[max - min + 1];
+            component.cellMines = new double[(max - min + 1) * m];
+
+            for (int k = min; k <= max; k++) {
+                component.weights[k - min] = solutions[k] / scale;
+                for (int s = 0; s < m; s++)
+                    component.cellMines[(k - min) * m + s] = cellSolutions[k * m + s] / scale;
+            }
+        }
+    }
+}
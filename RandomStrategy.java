@@ -0,0 +1,48 @@
+import java.util.SplittableRandom;
+/**
+ * RandomStrategy reveals a random hidden cell every move and never flags. It is the baseline every
+ * other strategy in a Tournament should beat.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class RandomStrategy implements Strategy
+{
+    private SplittableRandom random;
+
+    public String getName() {
+
+        return "random";
+    }
+
+    public void newGame(PlayerView view, long seed) {
+
+        random = new SplittableRandom(seed);
+    }
+
+    public int nextMove(PlayerView view) {
+
+        int cellTotal = view.getCellTotal();
+
+        //Most of the board is hidden for most of the game, so a few random tries nearly always hit
+        for (int tries = 0; tries < 16; tries++) {
+
+            int index = random.nextInt(cellTotal);
+
+            if (!view.isRevealed(index) && !view.isFlagged(index))
+                return Strategy.reveal(index);
+        }
+
+        //Otherwise take the first hidden cell from a random starting point
+        int start = random.nextInt(cellTotal);
+
+        for (int k = 0; k < cellTotal; k++) {
+
+            int index = (start + k) % cellTotal;
+
+            if (!view.isRevealed(index) && !view.isFlagged(index))
+                return Strategy.reveal(index);
+        }
+        return NO_MOVE;
+    }
+}
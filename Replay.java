@@ -0,0 +1,334 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+/**
+ * Replay reads a game recorded by MoveLog and plays it back through the same Grid.handleLeftClick and
+ * handleRightClick as the original clicks, so it reproduces the game exactly. Loading a log indexes
+ * every move and keyframe once; seek(move) then rebuilds the grid from the seed (or from the mines
+ * written in the header, when the seed alone can't rebuild them), restores the nearest
+ * keyframe at or before move and replays only the moves after it, so jumping anywhere in a long game
+ * costs at most MoveLog.KEYFRAME_INTERVAL clicks. A log cut short (for example by a crash) is read up
+ * to its last complete record.
+ *
+ * Usage: java Replay log-file
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class Replay
+{
+    private final byte[] data;
+    private int pos;
+
+    private int level;
+    private int mineTotal;
+    private long seed;
+    private int words;
+
+    //Whether the mines were placed at the first left click (see Grid.withSafeFirstClick)
+    private boolean safeFirstClick;
+
+    //Mines written in the header (null if they are rebuilt from the seed)
+    private long[] mineWords;
+
+    //Every move in order: cell index << 1 | 1 for a right click, and its time into the game
+    private int[] moves = new int[64];
+    private long[] moveMicros = new long[64];
+    private int moveCount = 0;
+
+    //Every keyframe in order: the number of moves before it and where its exploded cell starts in data
+    private int[] keyframeMoves = new int[8];
+    private int[] keyframeOffsets = new int[8];
+    private int keyframeCount = 0;
+
+    /* Reads and indexes a log read from file */
+    public static Replay load(String file) throws IOException {
+
+        return new Replay(Files.readAllBytes(Paths.get(file)));
+    }
+
+    /* Reads and indexes the log held in data */
+    public Replay(byte[] data) throws IOException {
+
+        this.data = data;
+
+        readHeader();
+        readRecords();
+
+        if (keyframeCount == 0)
+            throw new IOException("Move log has no keyframe");
+    }
+
+    /* Returns the level (board size) of the game */
+    public int getLevel() {
+
+        return level;
+    }
+
+    /* Returns the seed the game's mines were placed from */
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /* Returns the number of moves in the log */
+    public int getMoveCount() {
+
+        return moveCount;
+    }
+
+    /* Returns the cell clicked by move number move (starting from 0) */
+    public int getMoveCell(int move) {
+
+        return moves[move] >>> 1;
+    }
+
+    /* Returns true if move number move was a right click */
+    public boolean isRightClick(int move) {
+
+        return (moves[move] & 1) != 0;
+    }
+
+    /* Returns the time of move number move, in microseconds since the game started */
+    public long getMoveMicros(int move) {
+
+        return moveMicros[move];
+    }
+
+    /* Returns a headless grid in the state the game was in after its first move moves */
+    public Grid seek(int move) {
+
+        if (move < 0 || move > moveCount)
+            throw new IllegalArgumentException("No move " + move + " in a log of " + moveCount + " moves");
+
+        //Last keyframe at or before move (keyframes are in order of their move numbers)
+        int k = Arrays.binarySearch(keyframeMoves, 0, keyframeCount, move);
+        if (k < 0)
+            k = -k - 2;
+
+        Grid grid;
+
+        if (mineWords != null)
+            grid = new Grid(level, seed, mineWords);
+        else if (safeFirstClick)
+            grid = Grid.withSafeFirstClick(level, seed);
+        else
+            grid = new Grid(level, seed);
+
+        //Moves before the keyframe are not replayed, so place the mines as the first left click did
+        if (safeFirstClick) {
+            for (int m = 0; m < keyframeMoves[k]; m++) {
+                if (!isRightClick(m)) {
+                    grid.clearStartArea(getMoveCell(m));
+                    break;
+                }
+            }
+        }
+
+        restoreKeyframe(grid, keyframeOffsets[k]);
+
+        for (int m = keyframeMoves[k]; m < move; m++)
+            play(grid, m);
+
+        return grid;
+    }
+
+    /* Plays move number move on grid */
+    public void play(Grid grid, int move) {
+
+        Board board = grid.getBoard();
+        int cell = getMoveCell(move);
+
+        if (isRightClick(move))
+            grid.handleRightClick(board.rowOf(cell), board.colOf(cell));
+        else
+            grid.handleLeftClick(board.rowOf(cell), board.colOf(cell));
+    }
+
+    /* Reads the header and checks that this is a log Replay can read */
+    private void readHeader() throws IOException {
+
+        if (data.length < MoveLog.MAGIC.length + 1)
+            throw new IOException("Not a move log");
+
+        for (int k = 0; k < MoveLog.MAGIC.length; k++) {
+
+            if (data[k] != MoveLog.MAGIC[k])
+                throw new IOException("Not a move log");
+        }
+
+        pos = MoveLog.MAGIC.length;
+
+        //Version 1 logs have no mine layout byte (their mines were all placed from the seed),
+            //and version 2 logs never have their mines in the header
+        int version = data[pos++];
+        if (version < 1 || version > MoveLog.VERSION)
+            throw new IOException("Unsupported move log version " + version);
+
+        try {
+            level = (int) readVarint();
+            mineTotal = (int) readVarint();
+            seed = readLong();
+
+            int layout = (version >= 2) ? data[pos++] : MoveLog.MINES_FROM_SEED;
+
+            if (level <= 0 || mineTotal != level || layout < 0 || layout > MoveLog.MINES_IN_HEADER)
+                throw new IOException("Invalid move log header");
+
+            safeFirstClick = (layout == MoveLog.MINES_AT_FIRST_CLICK);
+            words = new Board(level, mineTotal).getWords();
+
+            if (layout == MoveLog.MINES_IN_HEADER) {
+                mineWords = new long[words];
+
+                for (int k = 0; k < words; k++)
+                    mineWords[k] = readLong();
+            }
+        }
+        catch (IndexOutOfBoundsException e) {
+            throw new IOException("Move log header cut short");
+        }
+    }
+
+    /* Indexes every complete record after the header */
+    private void readRecords() {
+
+        long micros = 0;
+
+        while (pos < data.length) {
+
+            int start = pos;
+
+            try {
+                long tag = readVarint();
+
+                if ((tag & MoveLog.KEYFRAME_TAG) != 0) {
+                    int move = (int) readVarint();
+                    int offset = pos;
+
+                    //Skip the exploded cell and both bitsets
+                    readVarint();
+                    skip(words * 2L * Long.BYTES);
+
+                    addKeyframe(move, offset);
+                }
+                else {
+                    long delta = readVarint();
+
+                    micros += delta;
+                    addMove((int) (tag >>> 2) << 1 | (int) (tag >>> 1 & 1), micros);
+                }
+            }
+            catch (IndexOutOfBoundsException e) {
+                //The last record was cut short: keep everything before it
+                pos = start;
+                return;
+            }
+        }
+    }
+
+    /* Puts grid in the state saved by the keyframe whose exploded cell starts at offset */
+    private void restoreKeyframe(Grid grid, int offset) {
+
+        pos = offset;
+
+        int explodedIndex = (int) readVarint() - 1;
+
+        long[] flagWords = new long[words];
+        long[] revealedWords = new long[words];
+
+        for (int k = 0; k < words; k++)
+            flagWords[k] = readLong();
+
+        for (int k = 0; k < words; k++)
+            revealedWords[k] = readLong();
+
+        grid.restoreState(flagWords, revealedWords, explodedIndex);
+    }
+
+    /* Adds a move to the index */
+    private void addMove(int move, long micros) {
+
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+            moveMicros = Arrays.copyOf(moveMicros, moveCount * 2);
+        }
+
+        moves[moveCount] = move;
+        moveMicros[moveCount] = micros;
+        moveCount++;
+    }
+
+    /* Adds a keyframe to the index */
+    private void addKeyframe(int move, int offset) {
+
+        if (keyframeCount == keyframeMoves.length) {
+            keyframeMoves = Arrays.copyOf(keyframeMoves, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+
+        keyframeMoves[keyframeCount] = move;
+        keyframeOffsets[keyframeCount] = offset;
+        keyframeCount++;
+    }
+
+    /* Reads an unsigned LEB128 varint */
+    private long readVarint() {
+
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            if (pos >= data.length)
+                throw new IndexOutOfBoundsException("End of move log");
+
+            b = data[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /* Reads a big-endian long */
+    private long readLong() {
+
+        if (pos + Long.BYTES > data.length)
+            throw new IndexOutOfBoundsException("End of move log");
+
+        long value = 0;
+
+        for (int k = 0; k < Long.BYTES; k++)
+            value = (value << 8) | (data[pos++] & 0xFF);
+
+        return value;
+    }
+
+    /* Skips bytes bytes */
+    private void skip(long bytes) {
+
+        if (pos + bytes > data.length)
+            throw new IndexOutOfBoundsException("End of move log");
+
+        pos += (int) bytes;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Replay replay = load(args[0]);
+        int moves = replay.getMoveCount();
+
+        long start = System.nanoTime();
+        Grid grid = replay.seek(moves);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("Level %d, seed %d, %d moves over %.1f s: %s (replayed in %.2f ms)%n",
+            replay.getLevel(), replay.getSeed(), moves,
+            moves == 0 ? 0 : replay.getMoveMicros(moves - 1) / 1e6,
+            grid.isGameWon() ? "won" : grid.isGameLost() ? "lost" : "not finished",
+            millis);
+    }
+}
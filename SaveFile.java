@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+/**
+ * SaveFile saves a game in progress and resumes it later. A save holds the level, seed, elapsed time
+ * and exploded cell, followed by the mine, flag and revealed bitsets exactly as the Board keeps them
+ * (one bit per cell), so a 1000 x 1000 board takes about 375 KB. Saving writes the whole file with a
+ * single write to a temporary file, which then replaces the old save, so a crash mid-save never
+ * leaves a broken save behind. Loading maps the file into memory and copies the bitsets straight
+ * into the new Board. Neighbor counts are not saved: they are rebuilt by the bit-sliced
+ * NeighborCounter from the mine bitset. The running totals (flags, flagged mines, revealed cells) are
+ * rebuilt by popcounts, and the mines are not placed again from the seed.
+ *
+ * File layout (big-endian): "MSSV", int version, int level, int mine total, long seed,
+ * long elapsed nanoseconds, int exploded cell (-1 if none), int words, then the mine, flag and
+ * revealed bitsets (words longs each). The mine bitset is empty for a game saved before its first
+ * click, whose mines are still to be placed.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class SaveFile
+{
+    private static final int MAGIC = ('M' << 24) | ('S' << 16) | ('S' << 8) | 'V';
+    private static final int VERSION = 1;
+
+    //Bytes before the bitsets
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8 + 8 + 4 + 4;
+
+    private final Grid grid;
+    private final long elapsedNanos;
+
+    private SaveFile(Grid grid, long elapsedNanos) {
+
+        this.grid = grid;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /* Returns the headless grid of the loaded game */
+    public Grid getGrid() {
+
+        return grid;
+    }
+
+    /* Returns the time the loaded game had been played for, in nanoseconds */
+    public long getElapsedNanos() {
+
+        return elapsedNanos;
+    }
+
+    /* Saves grid, played for elapsedNanos so far, to file (replacing any save there) */
+    public static void save(Grid grid, long elapsedNanos, Path file) throws IOException {
+
+        Board board = grid.getBoard();
+        int words = board.getWords();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 3 * words * Long.BYTES);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(board.getSize());
+        buffer.putInt(board.getMineTotal());
+        buffer.putLong(grid.getSeed());
+        buffer.putLong(elapsedNanos);
+        buffer.putInt(board.getExplodedIndex());
+        buffer.putInt(words);
+
+        //Copy each bitset in one bulk put
+        long[] bits = new long[words];
+        LongBuffer longs = buffer.asLongBuffer();
+
+        //A game saved before its first click has no mines yet: they are saved as an empty bitset
+        if (!grid.isFirstClickPending())
+            board.copyMines(bits);
+        longs.put(bits);
+        board.copyFlags(bits);
+        longs.put(bits);
+        board.copyRevealed(bits);
+        longs.put(bits);
+
+        buffer.rewind();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* Loads the game saved in file */
+    public static SaveFile load(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+
+            if (size < HEADER_BYTES)
+                throw new IOException("Not a saved game: " + file);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a saved game: " + file);
+
+            int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported saved game version " + version);
+
+            int level = buffer.getInt();
+            int mineTotal = buffer.getInt();
+            long seed = buffer.getLong();
+            long elapsedNanos = buffer.getLong();
+            int explodedIndex = buffer.getInt();
+            int words = buffer.getInt();
+
+            //Grids are level x level with level mines, and the bitsets must fill the rest of the file
+            if (level <= 0 || mineTotal != level || words != ((long) level * level + 63) / 64
+                    || size != HEADER_BYTES + 3L * words * Long.BYTES
+                    || explodedIndex < Board.NO_CELL || explodedIndex >= (long) level * level)
+                throw new IOException("Corrupt saved game: " + file);
+
+            LongBuffer longs = buffer.asLongBuffer();
+
+            long[] mines = new long[words];
+            long[] flags = new long[words];
+            long[] revealed = new long[words];
+
+            longs.get(mines);
+            longs.get(flags);
+            longs.get(revealed);
+
+            //An empty mine bitset is a game saved before its first click (see Grid.withSafeFirstClick)
+            boolean noMines = true;
+            for (long word : mines)
+                noMines &= (word == 0);
+
+            Grid grid;
+
+            try {
+                grid = new Grid(level, seed, noMines ? null : mines);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt saved game: " + file, e);
+            }
+
+            grid.restoreState(flags, revealed, explodedIndex);
+
+            return new SaveFile(grid, elapsedNanos);
+        }
+    }
+}
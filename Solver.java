@@ -0,0 +1,355 @@
+import java.util.Arrays;
+/**
+ * Solver plays a Grid to completion without any UI, through the same handleLeftClick and
+ * handleRightClick the player's clicks go through. It only looks at what a player can see (revealed
+ * counts and flags). After opening the first cell it applies, in order:
+ *
+ *  - single-cell rules: a revealed count whose mines are all flagged makes its other hidden
+ *    neighbors safe; a count equal to its flags plus hidden neighbors makes them all mines
+ *  - subset rules: when the hidden neighbors of one count are a subset of those of a nearby count,
+ *    the difference in their counts tells how many mines are in the cells only the second one sees
+ *  - the global mine count: once every mine is flagged the rest is safe, and once the hidden cells
+ *    are exactly the remaining mines they can all be flagged
+ *
+ * and only guesses (the hidden cell least likely to hold a mine by a local estimate) when none of
+ * these apply. A Solver reuses its work arrays from one game to the next, so one Solver per thread
+ * can play millions of games without allocating for each one.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class Solver
+{
+    //Outcomes of a game played by the solver
+    public static final int WON = 0;
+    public static final int LOST = 1;
+    public static final int STUCK = 2;
+
+    private Grid grid;
+    private Board board;
+    private int n;
+
+    //Revealed counts to be re-checked by the single-cell rules (circular queue, each cell at most once)
+    private int[] worklist = new int[0];
+    private boolean[] queued = new boolean[0];
+    private int head;
+    private int size;
+
+    //Hidden (unrevealed, unflagged) neighbors of the two counts compared by a subset rule
+    private final int[] hiddenA = new int[8];
+    private final int[] hiddenB = new int[8];
+
+    private int guesses;
+
+    /* Plays grid to completion, opening its center cell first and guessing whenever it has to */
+    public int play(Grid grid) {
+
+        Board board = grid.getBoard();
+        return play(grid, board.indexOf(board.getSize() / 2, board.getSize() / 2), true);
+    }
+
+    /* Plays grid starting with a left click on firstIndex
+    If allowGuess is false, stops and returns STUCK as soon as logic alone can't make a move */
+    public int play(Grid grid, int firstIndex, boolean allowGuess) {
+
+        prepare(grid);
+
+        open(firstIndex);
+
+        while (!grid.isGameOver()) {
+
+            if (applySingleCellRules()) continue;
+            if (applySubsetRules()) continue;
+            if (applyMineCountRule()) continue;
+
+            if (!allowGuess) return STUCK;
+
+            guesses++;
+            open(pickGuess());
+        }
+
+        return grid.isGameWon() ? WON : LOST;
+    }
+
+    /* Returns the number of guesses made in the last game */
+    public int getGuesses() {
+
+        return guesses;
+    }
+
+    /* Resets the solver for a new grid, growing the work arrays only if the grid is larger */
+    private void prepare(Grid grid) {
+
+        this.grid = grid;
+        this.board = grid.getBoard();
+        this.n = board.getSize();
+
+        if (worklist.length < board.getCellTotal()) {
+            worklist = new int[board.getCellTotal()];
+            queued = new boolean[board.getCellTotal()];
+        }
+        else {
+            Arrays.fill(queued, 0, board.getCellTotal(), false);
+        }
+
+        head = 0;
+        size = 0;
+        guesses = 0;
+    }
+
+    /* Left-clicks cell and queues every count affected by the cells it revealed */
+    private void open(int index) {
+
+        int revealedCells = grid.handleLeftClick(board.rowOf(index), board.colOf(index));
+        int[] batch = board.getRevealBatch();
+
+        for (int k = 0; k < revealedCells; k++)
+            touch(batch[k]);
+    }
+
+    /* Right-clicks cell to flag it and queues the counts around it */
+    private void flag(int index) {
+
+        grid.handleRightClick(board.rowOf(index), board.colOf(index));
+        touch(index);
+    }
+
+    /* Queues cell and its neighbors, if revealed with a count, for the single-cell rules */
+    private void touch(int index) {
+
+        int row = board.rowOf(index);
+        int col = board.colOf(index);
+
+        for (int i = Math.max(row-1, 0); i <= Math.min(row+1, n-1); i++) {
+
+            for (int j = Math.max(col-1, 0); j <= Math.min(col+1, n-1); j++) {
+
+                int cell = board.indexOf(i, j);
+
+                if (!queued[cell] && board.isRevealed(cell) && board.getNeighborMineCount(cell) > 0) {
+                    queued[cell] = true;
+                    worklist[(head + size) % worklist.length] = cell;
+                    size++;
+                }
+            }
+        }
+    }
+
+    /* Applies the single-cell rules to every queued count; returns true if any move was made */
+    private boolean applySingleCellRules() {
+
+        boolean moved = false;
+
+        while (size > 0 && !grid.isGameOver()) {
+
+            int cell = worklist[head];
+            head = (head + 1) % worklist.length;
+            size--;
+            queued[cell] = false;
+
+            int hidden = collectHidden(cell, hiddenA);
+            if (hidden == 0) continue;
+
+            int minesLeft = board.getNeighborMineCount(cell) - countFlags(cell);
+
+            //Every mine around the count is flagged, so the rest is safe
+            if (minesLeft == 0) {
+                for (int k = 0; k < hidden; k++)
+                    open(hiddenA[k]);
+                moved = true;
+            }
+            //Every hidden cell around the count must be a mine
+            else if (minesLeft == hidden) {
+                for (int k = 0; k < hidden; k++)
+                    flag(hiddenA[k]);
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /* Looks for two nearby counts where one's hidden cells are a subset of the other's and acts on
+    the cells only the larger one sees; returns true as soon as one move is made */
+    private boolean applySubsetRules() {
+
+        for (int a = 0; a < board.getCellTotal(); a++) {
+
+            if (!board.isRevealed(a) || board.getNeighborMineCount(a) == 0) continue;
+
+            int hiddenCountA = collectHidden(a, hiddenA);
+            if (hiddenCountA == 0) continue;
+
+            int minesLeftA = board.getNeighborMineCount(a) - countFlags(a);
+            int row = board.rowOf(a);
+            int col = board.colOf(a);
+
+            //Only counts within two cells of each other can share hidden neighbors
+            for (int i = Math.max(row-2, 0); i <= Math.min(row+2, n-1); i++) {
+
+                for (int j = Math.max(col-2, 0); j <= Math.min(col+2, n-1); j++) {
+
+                    int b = board.indexOf(i, j);
+
+                    if (b == a || !board.isRevealed(b) || board.getNeighborMineCount(b) == 0) continue;
+
+                    int hiddenCountB = collectHidden(b, hiddenB);
+
+                    if (hiddenCountB <= hiddenCountA || !isSubset(hiddenA, hiddenCountA, hiddenB, hiddenCountB))
+                        continue;
+
+                    //Cells only b sees, and how many mines they must hold between them
+                    int onlyB = hiddenCountB - hiddenCountA;
+                    int minesOnlyB = (board.getNeighborMineCount(b) - countFlags(b)) - minesLeftA;
+
+                    if (minesOnlyB == 0) {
+                        actOnDifference(hiddenB, hiddenCountB, hiddenA, hiddenCountA, false);
+                        return true;
+                    }
+                    if (minesOnlyB == onlyB) {
+                        actOnDifference(hiddenB, hiddenCountB, hiddenA, hiddenCountA, true);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /* Uses the total number of mines once the remaining hidden cells are all safe or all mines */
+    private boolean applyMineCountRule() {
+
+        int minesLeft = board.getMineTotal() - board.getFlagCount();
+        int hiddenLeft = board.getCellTotal() - board.getRevealedCount() - board.getFlagCount();
+
+        if (hiddenLeft == 0 || (minesLeft != 0 && minesLeft != hiddenLeft)) return false;
+
+        for (int index = 0; index < board.getCellTotal() && !grid.isGameOver(); index++) {
+
+            if (board.isRevealed(index) || board.containsFlag(index)) continue;
+
+            if (minesLeft == 0)
+                open(index);
+            else
+                flag(index);
+        }
+        return true;
+    }
+
+    /* Picks the hidden cell least likely to hold a mine: a cell next to counts is rated by its most
+    dangerous count (mines left / hidden cells), any other cell by the density of the unknown area */
+    private int pickGuess() {
+
+        int minesLeft = board.getMineTotal() - board.getFlagCount();
+        int hiddenLeft = board.getCellTotal() - board.getRevealedCount() - board.getFlagCount();
+        double density = (double) minesLeft / hiddenLeft;
+
+        int best = Board.NO_CELL;
+        double bestRisk = 2;
+
+        for (int index = 0; index < board.getCellTotal(); index++) {
+
+            if (board.isRevealed(index) || board.containsFlag(index)) continue;
+
+            double risk = -1;
+            int row = board.rowOf(index);
+            int col = board.colOf(index);
+
+            for (int i = Math.max(row-1, 0); i <= Math.min(row+1, n-1); i++) {
+
+                for (int j = Math.max(col-1, 0); j <= Math.min(col+1, n-1); j++) {
+
+                    int cell = board.indexOf(i, j);
+
+                    if (!board.isRevealed(cell)) continue;
+
+                    int hidden = collectHidden(cell, hiddenB);
+                    double countRisk = (double) (board.getNeighborMineCount(cell) - countFlags(cell)) / hidden;
+
+                    risk = Math.max(risk, countRisk);
+                }
+            }
+
+            //Not next to any count
+            if (risk < 0)
+                risk = density;
+
+            if (risk < bestRisk) {
+                bestRisk = risk;
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    /* Opens (or flags) every cell of the first list that is not in the second */
+    private void actOnDifference(int[] cells, int cellCount, int[] exclude, int excludeCount, boolean mines) {
+
+        for (int k = 0; k < cellCount; k++) {
+
+            if (contains(exclude, excludeCount, cells[k])) continue;
+
+            if (mines)
+                flag(cells[k]);
+            else
+                open(cells[k]);
+        }
+    }
+
+    /* Fills hidden with the unrevealed, unflagged neighbors of cell and returns how many there are */
+    private int collectHidden(int cell, int[] hidden) {
+
+        int count = 0;
+        int row = board.rowOf(cell);
+        int col = board.colOf(cell);
+
+        for (int i = Math.max(row-1, 0); i <= Math.min(row+1, n-1); i++) {
+
+            for (int j = Math.max(col-1, 0); j <= Math.min(col+1, n-1); j++) {
+
+                int neighbor = board.indexOf(i, j);
+
+                if (!board.isRevealed(neighbor) && !board.containsFlag(neighbor))
+                    hidden[count++] = neighbor;
+            }
+        }
+        return count;
+    }
+
+    /* Returns the number of flags around cell */
+    private int countFlags(int cell) {
+
+        int count = 0;
+        int row = board.rowOf(cell);
+        int col = board.colOf(cell);
+
+        for (int i = Math.max(row-1, 0); i <= Math.min(row+1, n-1); i++) {
+
+            for (int j = Math.max(col-1, 0); j <= Math.min(col+1, n-1); j++) {
+
+                if (board.containsFlag(board.indexOf(i, j)))
+                    count++;
+            }
+        }
+        return count;
+    }
+
+    /* Determines if every cell of the small set a is also in b */
+    private static boolean isSubset(int[] a, int aCount, int[] b, int bCount) {
+
+        for (int k = 0; k < aCount; k++) {
+
+            if (!contains(b, bCount, a[k])) return false;
+        }
+        return true;
+    }
+
+    /* Determines if cell is one of the first count entries of cells */
+    private static boolean contains(int[] cells, int count, int cell) {
+
+        for (int k = 0; k < count; k++) {
+
+            if (cells[k] == cell) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Strategy is a bot that plays MineSweeper for the Tournament harness. It only gets a PlayerView of
+ * the board (what a player can see) and answers each turn with one move, encoded in a single int
+ * (see reveal and flag) so that playing a move never allocates. A strategy may keep state between
+ * moves: the harness gives every worker its own instance and calls newGame before each game.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public interface Strategy
+{
+    //Returned by nextMove to give up the current game
+    int NO_MOVE = -1;
+
+    /* Returns the name the strategy is reported under */
+    String getName();
+
+    /* Called before the first move of every game; seed can be used for the strategy's own
+    random choices so that a game always plays out the same way */
+    default void newGame(PlayerView view, long seed) {}
+
+    /* Returns the next move (see reveal and flag), or NO_MOVE to give up */
+    int nextMove(PlayerView view);
+
+    /* Encodes a left click (reveal) on the cell at index */
+    static int reveal(int index) {
+
+        return index << 1;
+    }
+
+    /* Encodes a right click (flag or unflag) on the cell at index */
+    static int flag(int index) {
+
+        return index << 1 | 1;
+    }
+
+    /* Returns the index of the cell a move is played on */
+    static int cellOf(int move) {
+
+        return move >>> 1;
+    }
+
+    /* Returns true if move is a right click */
+    static boolean isFlag(int move) {
+
+        return (move & 1) != 0;
+    }
+}
@@ -1,54 +1,220 @@
-import objectdraw.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
 /**
- * Class Timer is an extention of active object. This class is responsible for starting a timer
- * and formatting the time elapsed into a minute:second format (00:00).
+ * Class Timer keeps the elapsed time of one game and formats it into a minute:second format (00:00).
+ * Time is measured with the monotonic System.nanoTime(), can be paused and resumed, and the time of
+ * every move can be recorded. All timers share a single clock thread: it checks the running timers a
+ * few times a second and, when a label needs to change, pushes the new text of every changed timer to
+ * the Swing event thread in one batch. Any number of games therefore costs no extra threads, and a
+ * stopped timer stops immediately.
  *
  * @author Sabirah Shuaybi
- * @version 12/8/16
+ * @version 10/17/26
  */
-public class Timer extends ActiveObject
+public class Timer
 {
+    //How often the shared clock checks the running timers
+    private static final long TICK_MILLIS = 100;
 
-  private MineSweeper mineSweeper;
-  private long startTime;
-  private boolean gameOver = false;
+    private static final long NANOS_PER_SECOND = 1000000000L;
 
-  //Delay time for animation in seconds
-  private static final int PAUSE_TIME_SECONDS = 1;
+    //The one clock thread shared by every timer
+    private static final ScheduledExecutorService CLOCK = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-  public Timer(MineSweeper mineSweeper) {
+    //Timers that are running (started, not paused and not over)
+    private static final List<Timer> RUNNING = new CopyOnWriteArrayList<Timer>();
 
-      //Save reference to MineSweeper class so can update its JLabel each second
-      this.mineSweeper = mineSweeper;
+    //Timers whose label text changed since the last push to the event thread
+    private static final List<Timer> CHANGED = new ArrayList<Timer>();
 
-      //Compute start time when timer object is constructed
-      startTime = System.currentTimeMillis();
-  }
+    static {
+        CLOCK.scheduleAtFixedRate(Timer::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private final MineSweeper mineSweeper;
+
+    //Time accumulated before the current run (the timer may have been paused), and when the run began
+    private long elapsedBeforeRun = 0;
+    private long runStart;
+    private boolean running = false;
+    private boolean gameOver = false;
+
+    //Last text computed for the label and the text waiting to be pushed to the label
+    private String shownText = null;
+    private String pendingText = null;
 
-  /* Renders state as gameOver */
-  public void gameIsOver() {
+    //Set once the text pushed after the game ended is on the label
+    private boolean finalTextShown = false;
 
-    gameOver = true;
-  }
+    //Elapsed time (in nanoseconds) at each move, in order
+    private long[] moveTimes = new long[16];
+    private int moveCount = 0;
 
-  /* Responsible for defining various components of the animation such as pause time */
-    public void run() {
+    /* Constructs a timer that keeps the elapsed time label of mineSweeper up to date
+    (mineSweeper may be null for a game without a window) */
+    public Timer(MineSweeper mineSweeper) {
 
-      //Keep updating timer while game is in progress
-        //If game is over (lost/won) exit loop/stop the timer
-      while (gameOver == false) {
+        //Save reference to MineSweeper class so can update its JLabel
+        this.mineSweeper = mineSweeper;
+    }
+
+    /* Starts the clock */
+    public void start() {
+
+        resume();
+    }
 
-        //Update timer count every second
-        pause(PAUSE_TIME_SECONDS * 1000);
+    /* Stops the clock for good */
+    public synchronized void gameIsOver() {
+
+        pause();
+        gameOver = true;
+
+        //The clock may not have pushed the last second yet, so push the final time now
+        tick(this);
+    }
+
+    /* Stops the clock until resume() is called */
+    public synchronized void pause() {
+
+        if (!running) return;
+
+        elapsedBeforeRun += System.nanoTime() - runStart;
+        running = false;
+        RUNNING.remove(this);
+    }
 
-        //Compute current time
-        long currentTime = System.currentTimeMillis();
+    /* Starts the clock again after pause() */
+    public synchronized void resume() {
 
-        //Compute the time that has elapsed
-        long elapsedTime = currentTime - startTime;
+        if (running || gameOver) return;
+
+        runStart = System.nanoTime();
+        running = true;
+        RUNNING.add(this);
+
+        //Show the current time right away rather than on the next full second
+        tick(this);
+    }
+
+    /* Sets the elapsed time (to continue a saved game), keeping the clock running or paused */
+    public synchronized void setElapsedNanos(long elapsedNanos) {
+
+        elapsedBeforeRun = elapsedNanos;
+        runStart = System.nanoTime();
+    }
+
+    /* Returns the elapsed time in nanoseconds */
+    public synchronized long getElapsedNanos() {
+
+        if (running)
+            return elapsedBeforeRun + (System.nanoTime() - runStart);
+
+        return elapsedBeforeRun;
+    }
+
+    /* Records the elapsed time of a move and returns it */
+    public synchronized long markMove() {
+
+        if (moveCount == moveTimes.length)
+            moveTimes = Arrays.copyOf(moveTimes, moveTimes.length * 2);
+
+        long elapsedNanos = getElapsedNanos();
+        moveTimes[moveCount++] = elapsedNanos;
+        return elapsedNanos;
+    }
+
+    /* Returns the number of moves recorded */
+    public synchronized int getMoveCount() {
+
+        return moveCount;
+    }
+
+    /* Returns the elapsed time in nanoseconds at move number move (starting from 0) */
+    public synchronized long getMoveTime(int move) {
+
+        return moveTimes[move];
+    }
+
+    /* Runs on the clock thread: finds every running timer whose label changed,
+    then pushes all of them to the event thread at once */
+    private static void tick() {
+
+        for (Timer timer : RUNNING)
+            tick(timer);
+    }
+
+    /* Computes the label text of timer and queues it for the event thread if it changed */
+    private static void tick(Timer timer) {
+
+        String text;
+
+        synchronized (timer) {
+            text = format(timer.getElapsedNanos());
+
+            if (text.equals(timer.shownText) || timer.mineSweeper == null) return;
+
+            timer.shownText = text;
+            timer.pendingText = text;
+        }
+
+        synchronized (CHANGED) {
+
+            //A push is already on its way to the event thread and will take this timer along
+            if (!CHANGED.isEmpty()) {
+                if (!CHANGED.contains(timer))
+                    CHANGED.add(timer);
+                return;
+            }
+            CHANGED.add(timer);
+        }
+        SwingUtilities.invokeLater(Timer::pushChanges);
+    }
+
+    /* Runs on the event thread: updates the label of every changed timer */
+    private static void pushChanges() {
+
+        Timer[] changed;
+
+        synchronized (CHANGED) {
+            changed = CHANGED.toArray(new Timer[0]);
+            CHANGED.clear();
+        }
+
+        for (Timer timer : changed) {
+
+            String text;
+
+            synchronized (timer) {
+                text = timer.pendingText;
+
+                //After its final time, a stopped game (for example one replaced by a new game)
+                    //must not overwrite the new game's time
+                if (timer.finalTextShown) continue;
+                if (timer.gameOver) timer.finalTextShown = true;
+            }
+
+            //Pass this string to MineSweeper class so it can keep
+                //updating its JLabel as game is in progress
+            timer.mineSweeper.updateElapsedTime(text);
+        }
+    }
+
+    /* Formats a time in nanoseconds into minutes:seconds */
+    private static String format(long nanos) {
 
         //Convert elapsed time into seconds
-        long totalElapsedSeconds = elapsedTime / 1000;
+        long totalElapsedSeconds = nanos / NANOS_PER_SECOND;
 
         //Convert the total elapsed seconds into minutes
         long elapsedMinutes = totalElapsedSeconds / 60;
@@ -57,24 +223,17 @@ public class Timer extends ActiveObject
             //(aka the remainder), is the elapsed seconds
         long elapsedSeconds = totalElapsedSeconds % 60;
 
-        //Configure this elapsed time format (minutes:seconds) into a string
-        String elapsedTimeString =
-            convertToString(elapsedMinutes) + ":" + convertToString(elapsedSeconds);
-
-        //Pass this string to MineSweeper class so it can keep
-            //updating its JLabel as game is in progress
-        mineSweeper.updateElapsedTime(elapsedTimeString);
-      }
+        return convertToString(elapsedMinutes) + ":" + convertToString(elapsedSeconds);
     }
 
     /* Converts the elapsed time (type long) to a string object */
-    private String convertToString(long n) {
+    private static String convertToString(long n) {
 
-      //Ensure that the minutes and seconds are displayed as double digits --> 00:00
+        //Ensure that the minutes and seconds are displayed as double digits --> 00:00
 
-      if (n < 10) {
-        return "0" + n;
-      }
-      return n + "";
+        if (n < 10) {
+            return "0" + n;
+        }
+        return n + "";
     }
 }
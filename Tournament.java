@@ -0,0 +1,250 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+/**
+ * Tournament plays large numbers of seeded headless games with each Strategy and reports how well
+ * they do. Moves go through the same Grid.handleLeftClick and handleRightClick as the player's clicks,
+ * so the results match real play. The seeds of a run are split in halves recursively on a
+ * work-stealing ForkJoinPool, so idle workers take over the remaining games of busy ones; each worker
+ * keeps its own strategy instance and PlayerView, and the totals are kept in striped counters
+ * (LongAdder) that workers add to without contending. Game i of a level is always played on the grid
+ * generated from seed i, so two strategies are compared on exactly the same boards.
+ *
+ * Usage: java Tournament [games per level] [threads] [strategy ...]
+ * where a strategy is "random", "basic" or the name of a class implementing Strategy.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class Tournament
+{
+    private static final long DEFAULT_GAMES = 1000000;
+
+    private static final int[] LEVELS = { Grid.EASY_LEVEL, Grid.MEDIUM_LEVEL, Grid.HARD_LEVEL };
+    private static final String[] LEVEL_NAMES = { "Easy", "Medium", "Hard" };
+
+    //Number of games below which a range of seeds is played instead of split further
+    private static final int LEAF_GAMES = 256;
+
+    //A game is given up after this many moves per cell (a strategy may keep toggling a flag)
+    private static final int MOVES_PER_CELL = 4;
+
+    private final ForkJoinPool pool;
+
+    /* Constructs a tournament that plays its games on pool */
+    public Tournament(ForkJoinPool pool) {
+
+        this.pool = pool;
+    }
+
+    /* Plays games [firstSeed, firstSeed + games) at level with strategies made by factory
+    (one per worker task) and returns the totals */
+    public Stats play(Supplier<? extends Strategy> factory, int level, long firstSeed, long games) {
+
+        Stats stats = new Stats();
+        pool.invoke(new SeedRange(factory, level, firstSeed, firstSeed + games, stats));
+        return stats;
+    }
+
+    /* Plays the game of grid with strategy through view until it is over or the strategy gives up
+    Returns the number of moves played, or -1 if the strategy gave up */
+    private static int playGame(Grid grid, Strategy strategy, PlayerView view) {
+
+        Board board = grid.getBoard();
+        int maxMoves = MOVES_PER_CELL * board.getCellTotal();
+        int moves = 0;
+
+        view.setGrid(grid);
+        strategy.newGame(view, grid.getSeed());
+
+        while (!grid.isGameOver()) {
+
+            int move = strategy.nextMove(view);
+
+            //A strategy that gives up, plays off the board or doesn't finish is out of this game
+            if (move == Strategy.NO_MOVE || Strategy.cellOf(move) >= board.getCellTotal() || moves == maxMoves)
+                return -1;
+
+            moves++;
+
+            int row = board.rowOf(Strategy.cellOf(move));
+            int col = board.colOf(Strategy.cellOf(move));
+
+            if (Strategy.isFlag(move))
+                grid.handleRightClick(row, col);
+            else
+                grid.handleLeftClick(row, col);
+        }
+        return moves;
+    }
+
+    /**
+     * Totals of the games a strategy played, added to by every worker at once.
+     */
+    public static class Stats
+    {
+        private final LongAdder games = new LongAdder();
+        private final LongAdder won = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+        private final LongAdder gaveUp = new LongAdder();
+        private final LongAdder moves = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public long getGames() { return games.sum(); }
+
+        public long getWon() { return won.sum(); }
+
+        public long getLost() { return lost.sum(); }
+
+        public long getGaveUp() { return gaveUp.sum(); }
+
+        /* Returns the total number of moves played in games that were not given up */
+        public long getMoves() { return moves.sum(); }
+
+        /* Returns the time spent generating and playing games, summed over every worker */
+        public long getNanos() { return nanos.sum(); }
+    }
+
+    /**
+     * A range of seeds to play: split in two while it is large, played by one worker otherwise.
+     */
+    private static class SeedRange extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Supplier<? extends Strategy> factory;
+        private final int level;
+        private final long first;
+        private final long last;
+        private final Stats stats;
+
+        SeedRange(Supplier<? extends Strategy> factory, int level, long first, long last, Stats stats) {
+
+            this.factory = factory;
+            this.level = level;
+            this.first = first;
+            this.last = last;
+            this.stats = stats;
+        }
+
+        protected void compute() {
+
+            if (last - first > LEAF_GAMES) {
+                long middle = (first + last) >>> 1;
+
+                invokeAll(new SeedRange(factory, level, first, middle, stats),
+                    new SeedRange(factory, level, middle, last, stats));
+                return;
+            }
+
+            Strategy strategy = factory.get();
+            PlayerView view = new PlayerView();
+
+            //Count locally and add to the shared totals once per range
+            long won = 0, lost = 0, gaveUp = 0, moves = 0;
+            long start = System.nanoTime();
+
+            //One grid for the whole range, reset in place for every game
+            Grid grid = null;
+
+            for (long seed = first; seed < last; seed++) {
+
+                if (grid == null)
+                    grid = new Grid(level, seed);
+                else
+                    grid.reset(seed);
+
+                int gameMoves = playGame(grid, strategy, view);
+
+                if (gameMoves < 0) {
+                    gaveUp++;
+                    continue;
+                }
+
+                moves += gameMoves;
+
+                if (grid.isGameWon())
+                    won++;
+                else
+                    lost++;
+            }
+
+            stats.nanos.add(System.nanoTime() - start);
+            stats.games.add(last - first);
+            stats.won.add(won);
+            stats.lost.add(lost);
+            stats.gaveUp.add(gaveUp);
+            stats.moves.add(moves);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        List<Supplier<Strategy>> factories = new ArrayList<Supplier<Strategy>>();
+
+        for (int k = 2; k < args.length; k++)
+            factories.add(factoryFor(args[k]));
+
+        if (factories.isEmpty()) {
+            factories.add(RandomStrategy::new);
+            factories.add(BasicStrategy::new);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Tournament tournament = new Tournament(pool);
+
+        System.out.println(games + " games per level and strategy on " + threads + " thread(s)");
+
+        for (Supplier<Strategy> factory : factories) {
+
+            String name = factory.get().getName();
+
+            for (int l = 0; l < LEVELS.length; l++) {
+
+                //Untimed warm-up so the JIT has compiled the strategy before the measured run
+                tournament.play(factory, LEVELS[l], 0, Math.min(games, 20000));
+
+                long start = System.nanoTime();
+                Stats stats = tournament.play(factory, LEVELS[l], 0, games);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long finished = stats.getWon() + stats.getLost();
+
+                System.out.printf("%-10s %-7s won %6.2f%%  lost %6.2f%%  gave up %6.2f%%  moves/game %6.2f  %,10.0f games/s%n",
+                    name, LEVEL_NAMES[l],
+                    100.0 * stats.getWon() / games,
+                    100.0 * stats.getLost() / games,
+                    100.0 * stats.getGaveUp() / games,
+                    finished == 0 ? 0 : (double) stats.getMoves() / finished,
+                    games / seconds);
+            }
+        }
+
+        pool.shutdown();
+    }
+
+    /* Returns the factory of a built-in strategy, or of the Strategy class called name */
+    private static Supplier<Strategy> factoryFor(String name) throws ReflectiveOperationException {
+
+        if (name.equals("random")) return RandomStrategy::new;
+        if (name.equals("basic")) return BasicStrategy::new;
+
+        Class<? extends Strategy> type = Class.forName(name).asSubclass(Strategy.class);
+        type.getConstructor();
+
+        return () -> {
+            try {
+                return type.getConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot create strategy " + name, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+import minesweeper.bench.Engine;
+/**
+ * EngineBridge lets the JMH benchmarks (in package minesweeper.bench) call the game engine, which
+ * lives in the default package. It sits in the default package itself, so it can also reach the
+ * package-private win checks of Grid.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class EngineBridge implements Engine
+{
+    public Object newGrid(int level, long seed) {
+
+        return new Grid(level, seed);
+    }
+
+    public void resetGrid(Object grid, long seed) {
+
+        ((Grid) grid).reset(seed);
+    }
+
+    public Object placeMines(int level, long seed) {
+
+        //Same steps as Grid.randomizeMines, on a board of its own
+        Board board = new Board(level, level);
+        new MinePlacer(seed).placeMines(board);
+        return board;
+    }
+
+    public void countNeighbors(Object board) {
+
+        NeighborCounter.countAll((Board) board);
+    }
+
+    public int cellAt(Object grid, double x, double y) {
+
+        return ((Grid) grid).getClickedCellAt(x, y);
+    }
+
+    public boolean winConditionsMet(Object grid) {
+
+        Grid g = (Grid) grid;
+        return g.allMinesLocated() && g.allCellsUncovered();
+    }
+
+    public boolean centerHoldsMine(Object grid) {
+
+        Board board = ((Grid) grid).getBoard();
+        int center = board.getSize() / 2;
+        return board.containsMine(board.indexOf(center, center));
+    }
+
+    public int clickCenter(Object grid) {
+
+        Grid g = (Grid) grid;
+        int center = g.getBoard().getSize() / 2;
+        return g.handleLeftClick(center, center);
+    }
+
+    public Object newSolver() {
+
+        return new Solver();
+    }
+
+    public int playGame(Object solver, int level, long seed) {
+
+        return ((Solver) solver).play(new Grid(level, seed));
+    }
+}
@@ -0,0 +1,26 @@
+package minesweeper.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+/**
+ * BenchmarkMain runs the benchmarks with the GC profiler always on, so the allocation rate and bytes
+ * allocated per operation are reported next to every time. It accepts the usual JMH command line,
+ * for example a benchmark name pattern or -p level=1000.
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [JMH options]
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class BenchmarkMain
+{
+    public static void main(String[] args) throws Exception {
+
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
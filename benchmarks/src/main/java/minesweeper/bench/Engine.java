@@ -0,0 +1,58 @@
+package minesweeper.bench;
+
+/**
+ * Engine is the benchmarks' way into the game engine. JMH only accepts benchmarks in a named package,
+ * and a named package cannot refer to the game's classes (they are in the default package), so every
+ * call goes through this interface, implemented by EngineBridge in the default package. Grids, boards
+ * and solvers are passed around as plain Objects. There is a single implementation, loaded once into
+ * a static final field, so the JIT inlines these calls and they cost nothing in the measurements.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public interface Engine
+{
+    //The engine, loaded once for every benchmark
+    Engine INSTANCE = load();
+
+    /* Constructs a headless grid at level from seed (Grid construction) */
+    Object newGrid(int level, long seed);
+
+    /* Starts a new game on grid with its mines placed from seed, reusing its board (Grid.reset) */
+    void resetGrid(Object grid, long seed);
+
+    /* Returns a new level x level board holding level mines placed from seed (randomizeMines) */
+    Object placeMines(int level, long seed);
+
+    /* Recomputes every neighbor count of board (setAllNeighborMineCounts) */
+    void countNeighbors(Object board);
+
+    /* Returns the index of the cell under (x, y), or -1 (getClickedCellAt) */
+    int cellAt(Object grid, double x, double y);
+
+    /* Returns true if both win conditions hold (allMinesLocated and allCellsUncovered) */
+    boolean winConditionsMet(Object grid);
+
+    /* Returns true if the center cell of grid holds a mine */
+    boolean centerHoldsMine(Object grid);
+
+    /* Left clicks the center cell of grid and returns the number of cells revealed (cascade reveal) */
+    int clickCenter(Object grid);
+
+    /* Returns a new Solver */
+    Object newSolver();
+
+    /* Has solver play a whole game at level from seed and returns its outcome (full game) */
+    int playGame(Object solver, int level, long seed);
+
+    /* Loads the implementation from the default package */
+    private static Engine load() {
+
+        try {
+            return (Engine) Class.forName("EngineBridge").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load EngineBridge", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package minesweeper.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * EngineBenchmark measures the engine operations behind a game: building a grid (or resetting one for
+ * a new game), placing its mines, computing the neighbor counts, finding the clicked cell, checking
+ * for a win, the cascade of the first click and a whole game played by the Solver. Every benchmark runs at the three game levels
+ * and at two much larger boards (a level-n grid is n x n with n mines). Grids are built from changing
+ * seeds so the numbers are not those of one lucky board; run through BenchmarkMain, allocation per
+ * operation is reported next to the time.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark
+{
+    private static final Engine ENGINE = Engine.INSTANCE;
+
+    //Easy, medium and hard, then a 100 x 100 and a 1000 x 1000 board
+    @Param({ "10", "15", "20", "100", "1000" })
+    public int level;
+
+    //Seed of the next grid built by a benchmark
+    private long seed;
+
+    //A grid and a board with mines, for the benchmarks that only read them
+    private Object grid;
+    private Object board;
+
+    //Pixel coords of a cell near the middle of the board
+    private double clickX;
+    private double clickY;
+
+    private Object solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        grid = ENGINE.newGrid(level, 1);
+        board = ENGINE.placeMines(level, 1);
+        solver = ENGINE.newSolver();
+
+        //Grid.START_LOC plus half the board (cells are 30 pixels wide)
+        clickX = 20 + level * 15 + 7;
+        clickY = 20 + level * 15 + 7;
+    }
+
+    /**
+     * A fresh grid whose center is safe, for the first-click cascade (a click changes the grid,
+     * so each one needs a new grid, built outside the measurement).
+     */
+    @State(Scope.Thread)
+    public static class FreshGrid
+    {
+        private long seed;
+        Object grid;
+
+        @Setup(Level.Invocation)
+        public void setUp(EngineBenchmark benchmark) {
+
+            do {
+                grid = ENGINE.newGrid(benchmark.level, seed++);
+            }
+            while (ENGINE.centerHoldsMine(grid));
+        }
+    }
+
+    @Benchmark
+    public Object constructGrid() {
+
+        return ENGINE.newGrid(level, seed++);
+    }
+
+    @Benchmark
+    public Object resetGrid() {
+
+        ENGINE.resetGrid(grid, seed++);
+        return grid;
+    }
+
+    @Benchmark
+    public Object randomizeMines() {
+
+        return ENGINE.placeMines(level, seed++);
+    }
+
+    @Benchmark
+    public Object setAllNeighborMineCounts() {
+
+        ENGINE.countNeighbors(board);
+        return board;
+    }
+
+    @Benchmark
+    public int getClickedCellAt() {
+
+        return ENGINE.cellAt(grid, clickX, clickY);
+    }
+
+    @Benchmark
+    public boolean checkForWin() {
+
+        return ENGINE.winConditionsMet(grid);
+    }
+
+    @Benchmark
+    public int cascadeReveal(FreshGrid fresh) {
+
+        return ENGINE.clickCenter(fresh.grid);
+    }
+
+    @Benchmark
+    public int fullGame() {
+
+        return ENGINE.playGame(solver, level, seed++);
+    }
+}
@@ -0,0 +1,244 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+/**
+ * Tests of InfiniteBoard: dropping and generating chunks again, and counts and cascades across chunk
+ * edges.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class InfiniteBoardTest
+{
+    private static final int SIZE = InfiniteBoard.CHUNK_SIZE;
+
+    //Smallest cache the board allows: the 3 x 3 chunks one count needs
+    private static final int SMALL_CACHE = 9;
+
+    /* Copies whether each cell of chunk (cx, cy) holds a mine */
+    private static boolean[] minesOf(InfiniteBoard board, int cx, int cy) {
+
+        boolean[] mines = new boolean[SIZE * SIZE];
+
+        for (int y = 0; y < SIZE; y++)
+            for (int x = 0; x < SIZE; x++)
+                mines[y * SIZE + x] = board.containsMine(cx * SIZE + x, cy * SIZE + y);
+
+        return mines;
+    }
+
+    /* Touches enough chunks far from the origin to push every chunk near it out of a small cache */
+    private static void visitFarChunks(InfiniteBoard board) {
+
+        for (int cx = 100; cx < 100 + 4 * SMALL_CACHE; cx++)
+            board.containsMine(cx * SIZE, 0);
+    }
+
+    /* Counts the mines around (x, y) one neighbor at a time */
+    private static int countByHand(InfiniteBoard board, int x, int y) {
+
+        int count = 0;
+
+        for (int dy = -1; dy <= 1; dy++)
+            for (int dx = -1; dx <= 1; dx++)
+                if ((dx != 0 || dy != 0) && board.containsMine(x + dx, y + dy))
+                    count++;
+
+        return count;
+    }
+
+    @Test
+    public void droppedChunkIsGeneratedAgainWithTheSameMines() {
+
+        InfiniteBoard board = new InfiniteBoard(42, 150, SMALL_CACHE, 1000);
+
+        boolean[] before = minesOf(board, 0, 0);
+        boolean[] negative = minesOf(board, -1, -1);
+        long generated = board.getGeneratedCount();
+
+        visitFarChunks(board);
+        assertTrue(board.getCachedChunkCount() <= SMALL_CACHE);
+
+        assertArrayEquals(before, minesOf(board, 0, 0));
+        assertArrayEquals(negative, minesOf(board, -1, -1));
+
+        //Both chunks had been dropped, so both were generated again
+        assertEquals(generated + 4 * SMALL_CACHE + 2, board.getGeneratedCount());
+    }
+
+    @Test
+    public void chunksHoldTheirMineCount() {
+
+        InfiniteBoard board = new InfiniteBoard(7, 150, SMALL_CACHE, 1000);
+
+        for (int cy = -2; cy <= 2; cy++) {
+
+            for (int cx = -2; cx <= 2; cx++) {
+
+                int mines = 0;
+                for (boolean mine : minesOf(board, cx, cy))
+                    if (mine) mines++;
+
+                assertEquals(150, mines);
+            }
+        }
+    }
+
+    @Test
+    public void playerStateSurvivesDroppedChunks() {
+
+        InfiniteBoard board = new InfiniteBoard(3, 0, SMALL_CACHE, 1);
+
+        board.toggleFlag(5, 5);
+        board.reveal(-40, 70);
+
+        visitFarChunks(board);
+
+        assertTrue(board.containsFlag(5, 5));
+        assertTrue(board.isRevealed(-40, 70));
+        assertFalse(board.isRevealed(5, 5));
+        assertEquals(1, board.getFlagCount());
+        assertEquals(1, board.getRevealedCount());
+        assertEquals(2, board.getTouchedChunkCount());
+    }
+
+    @Test
+    public void countingAChunkGeneratesOnlyItsAdjacentChunks() {
+
+        InfiniteBoard board = new InfiniteBoard(11, 150, 1000, 1000);
+
+        board.getNeighborMineCount(5, 5);
+
+        assertEquals(9, board.getGeneratedCount());
+        assertEquals(9, board.getCachedChunkCount());
+    }
+
+    @Test
+    public void countsAcrossChunkEdgesMatchTheMines() {
+
+        //The small cache drops chunks while counting, so counts are also checked after their neighbors were dropped
+        InfiniteBoard board = new InfiniteBoard(99, 200, SMALL_CACHE, 1000);
+
+        for (int y = -SIZE - 2; y <= SIZE + 1; y++) {
+
+            for (int x = -SIZE - 2; x <= SIZE + 1; x++) {
+
+                //Only cells on or next to a chunk edge
+                int lx = Math.floorMod(x, SIZE);
+                int ly = Math.floorMod(y, SIZE);
+                if (lx > 1 && lx < SIZE - 2 && ly > 1 && ly < SIZE - 2) continue;
+
+                assertEquals(countByHand(board, x, y), board.getNeighborMineCount(x, y), "cell " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void cappedCascadeCrossesChunkEdgesAndContinues() {
+
+        InfiniteBoard board = new InfiniteBoard(5, 0, SMALL_CACHE, 5000);
+
+        assertEquals(5000, board.reveal(SIZE - 1, SIZE - 1));
+
+        //The cascade spread into every chunk around the corner it started at
+        assertTrue(board.isRevealed(SIZE, SIZE));
+        assertTrue(board.isRevealed(SIZE - 1, SIZE));
+        assertTrue(board.isRevealed(SIZE, SIZE - 1));
+        assertTrue(board.getPendingCascade() > 0);
+
+        assertEquals(1000, board.continueCascade(1000));
+        assertEquals(6000, board.getRevealedCount());
+    }
+
+    @Test
+    public void cascadeAcrossChunkEdgesOpensTheSameCellsAsAFloodFill() {
+
+        long seed = 17;
+        InfiniteBoard reference = new InfiniteBoard(seed, 180, 1000, 1);
+
+        //A cell with no neighboring mines on the edge of chunk (0, 0) whose region crosses into other chunks
+        Set<Long> expected = null;
+        int startX = 0, startY = 0;
+
+        for (int x = -1; x <= SIZE && expected == null; x++) {
+
+            for (int y : new int[] { -1, 0, SIZE - 1, SIZE }) {
+
+                if (reference.containsMine(x, y) || reference.getNeighborMineCount(x, y) != 0) continue;
+
+                Set<Long> region = floodFill(reference, x, y, 20000);
+                if (region != null && spansChunks(region)) {
+                    expected = region;
+                    startX = x;
+                    startY = y;
+                    break;
+                }
+            }
+        }
+        assertNotNull(expected, "no finite region across a chunk edge found");
+
+        //Played on a small cache, so chunks are dropped and generated again during the cascade
+        InfiniteBoard board = new InfiniteBoard(seed, 180, SMALL_CACHE, 100000);
+
+        assertEquals(expected.size(), board.reveal(startX, startY));
+        assertEquals(0, board.getPendingCascade());
+
+        for (long cell : expected)
+            assertTrue(board.isRevealed((int) (cell >> 32), (int) cell));
+    }
+
+    /* Returns the cells a reveal of (x, y) should open, or null if there are more than limit */
+    private static Set<Long> floodFill(InfiniteBoard board, int x, int y, int limit) {
+
+        Set<Long> opened = new HashSet<Long>();
+        ArrayDeque<long[]> queue = new ArrayDeque<long[]>();
+
+        opened.add(key(x, y));
+        queue.add(new long[] { x, y });
+
+        while (!queue.isEmpty()) {
+
+            long[] cell = queue.poll();
+            int cx = (int) cell[0];
+            int cy = (int) cell[1];
+
+            if (board.getNeighborMineCount(cx, cy) != 0) continue;
+
+            for (int dy = -1; dy <= 1; dy++) {
+
+                for (int dx = -1; dx <= 1; dx++) {
+
+                    if (opened.add(key(cx + dx, cy + dy))) {
+                        if (opened.size() > limit) return null;
+                        queue.add(new long[] { cx + dx, cy + dy });
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    /* Determines if the cells lie in more than one chunk */
+    private static boolean spansChunks(Set<Long> cells) {
+
+        Set<Long> chunks = new HashSet<Long>();
+
+        for (long cell : cells)
+            chunks.add(key(Math.floorDiv((int) (cell >> 32), SIZE), Math.floorDiv((int) cell, SIZE)));
+
+        return chunks.size() > 1;
+    }
+
+    /* Packs a cell's coords into one value (x in the high half, y in the low half) */
+    private static long key(int x, int y) {
+
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+/**
+ * Tests of MoveHistory, in particular histories holding more cells than its first cell array.
+ *
+ * @author Sabirah Shuaybi
+ * @version 10/17/26
+ */
+public class MoveHistoryTest
+{
+    private static final int LEVEL = 40;
+
+    /* Returns a grid whose mines all sit in its last row, so a click in the first row opens every
+    other row in one cascade */
+    private static Grid gridWithMinesInLastRow() {
+
+        Board layout = new Board(LEVEL, LEVEL);
+        for (int col = 0; col < LEVEL; col++)
+            layout.placeMine(layout.indexOf(LEVEL - 1, col));
+
+        long[] mineWords = new long[layout.getWords()];
+        layout.copyMines(mineWords);
+
+        return new Grid(LEVEL, 1, mineWords);
+    }
+
+    /* Copies the flag and revealed bitsets of board, one after the other */
+    private static long[] snapshot(Board board) {
+
+        int words = board.getWords();
+        long[] state = new long[words * 2];
+        long[] part = new long[words];
+
+        board.copyFlags(part);
+        System.arraycopy(part, 0, state, 0, words);
+        board.copyRevealed(part);
+        System.arraycopy(part, 0, state, words, words);
+
+        return state;
+    }
+
+    @Test
+    public void cascadeLargerThanFirstArrayIsUndoneAndRedone() {
+
+        Grid grid = gridWithMinesInLastRow();
+        Board board = grid.getBoard();
+        MoveHistory history = new MoveHistory(grid);
+
+        long[] before = snapshot(board);
+        int revealed = history.leftClick(0, 0);
+        long[] after = snapshot(board);
+
+        assertEquals((LEVEL - 1) * LEVEL, revealed);
+        assertTrue(revealed > 256);
+
+        assertTrue(history.undo());
+        assertArrayEquals(before, snapshot(board));
+        assertEquals(0, board.getRevealedCount());
+
+        assertTrue(history.redo());
+        assertArrayEquals(after, snapshot(board));
+        assertEquals(revealed, board.getRevealedCount());
+    }
+
+    @Test
+    public void singleCellMovesPastFirstArrayAreUndoneAndRedone() {
+
+        Grid grid = gridWithMinesInLastRow();
+        Board board = grid.getBoard();
+        MoveHistory history = new MoveHistory(grid);
+
+        //Open a few cells first, then flag and unflag the mines until the history passes 256 cells
+        history.leftClick(LEVEL - 2, 0);
+
+        int flagMoves = 0;
+        while (history.getChangedCells().length <= 256 || flagMoves < 300) {
+            int col = flagMoves % LEVEL;
+            history.rightClick(LEVEL - 1, col);
+            flagMoves++;
+        }
+
+        long[] after = snapshot(board);
+        int moves = history.getUndoCount();
+        assertEquals(flagMoves + 1, moves);
+
+        while (history.undo());
+        assertEquals(0, board.getRevealedCount());
+        assertEquals(0, board.getFlagCount());
+
+        while (history.redo());
+        assertEquals(moves, history.getUndoCount());
+        assertArrayEquals(after, snapshot(board));
+    }
+
+    @Test
+    public void undoingALossLetsTheGameGoOn() {
+
+        Grid grid = gridWithMinesInLastRow();
+        MoveHistory history = new MoveHistory(grid);
+
+        history.leftClick(LEVEL - 1, 0);
+        assertTrue(grid.isGameLost());
+
+        assertTrue(history.undo());
+        assertFalse(grid.isGameOver());
+
+        assertTrue(history.redo());
+        assertTrue(grid.isGameLost());
+    }
+}